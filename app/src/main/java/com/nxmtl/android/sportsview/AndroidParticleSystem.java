@@ -0,0 +1,92 @@
+package com.nxmtl.android.sportsview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.AnimationDrawable;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.DisplayMetrics;
+import android.view.animation.Interpolator;
+
+import com.nxmtl.android.sportsview.modifiers.CurveTrack;
+import com.nxmtl.android.sportsview.modifiers.InterpolatorEasing;
+
+/**
+ * {@link ParticleSystem} whose particles are Android drawables, packed into a {@link SpriteAtlas}
+ * drawn by a {@link ParticleRenderer}. Dimensions in dp are converted with the density of the
+ * display.
+ */
+public class AndroidParticleSystem extends ParticleSystem {
+
+	private final SpriteAtlas mAtlas;
+
+	private AndroidParticleSystem(int maxParticles, SpriteAtlas atlas, long timeToLive) {
+		super(maxParticles, atlas.getSheet(), timeToLive,
+				Resources.getSystem().getDisplayMetrics().xdpi / DisplayMetrics.DENSITY_DEFAULT);
+		mAtlas = atlas;
+	}
+
+	/**
+	 * Creates a particle system with the given parameters
+	 *
+	 * @param drawable The drawable to use as a particle
+	 * @param maxParticles The maximum number of particles
+	 * @param timeToLive The time to live for the particles
+	 */
+	public AndroidParticleSystem(int maxParticles, Drawable drawable, long timeToLive) {
+		this(maxParticles, SpriteAtlas.pack(drawable), timeToLive);
+	}
+
+	/**
+	 * Creates a particle system where each particle gets one of the given drawables at random.
+	 * All of them, animations included, are packed in a single atlas.
+	 *
+	 * @param maxParticles The maximum number of particles
+	 * @param drawables The drawables to use as particles
+	 * @param timeToLive The time to live for the particles
+	 */
+	public AndroidParticleSystem(int maxParticles, Drawable[] drawables, long timeToLive) {
+		this(maxParticles, SpriteAtlas.pack(drawables), timeToLive);
+	}
+
+	/**
+	 * Utility constructor that receives a Bitmap
+	 *
+	 * @param maxParticles The maximum number of particles
+	 * @param bitmap The bitmap to use as particle
+	 * @param timeToLive The time to live for the particles
+	 */
+	public AndroidParticleSystem(int maxParticles, Bitmap bitmap, long timeToLive) {
+		this(maxParticles, new BitmapDrawable(Resources.getSystem(), bitmap), timeToLive);
+	}
+
+	/**
+	 * Utility constructor that receives an AnimationDrawable
+	 *
+	 * @param maxParticles The maximum number of particles
+	 * @param animation The animation to use as particle
+	 * @param timeToLive The time to live for the particles
+	 */
+	public AndroidParticleSystem(int maxParticles, AnimationDrawable animation, long timeToLive) {
+		this(maxParticles, (Drawable) animation, timeToLive);
+	}
+
+	/**
+	 * @return the atlas holding the frames referenced by {@link ParticleBuffer#mFrame}
+	 */
+	public SpriteAtlas getSpriteAtlas() {
+		return mAtlas;
+	}
+
+	/**
+	 * Configures a fade out for the particles when they disappear. The interpolator is baked into
+	 * a {@link CurveTrack} here, so it is not called on updates.
+	 *
+	 * @param milisecondsBeforeEnd fade out duration in milliseconds
+	 * @param interpolator the interpolator for the fade out
+	 */
+	public AndroidParticleSystem setFadeOut(long milisecondsBeforeEnd, Interpolator interpolator) {
+		setFadeOut(milisecondsBeforeEnd, CurveTrack.bake(new InterpolatorEasing(interpolator)));
+		return this;
+	}
+}
@@ -0,0 +1,328 @@
+package com.nxmtl.android.sportsview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 资源位图的异步解码和缓存，所有视图共用一个实例。
+ * <ul>
+ * <li>解码在后台线程进行，结果在主线程回调；已缓存的结果直接返回</li>
+ * <li>按（资源、目标尺寸、格式）缓存在 {@link LruCache} 中，同一个 key 同时只解码一次</li>
+ * <li>每个资源的原始尺寸只读取一次</li>
+ * <li>不再使用且已移出缓存的位图放入复用池，作为之后解码的 inBitmap</li>
+ * <li>开启 {@link #enableDiskCache(Context)} 后，缩放好的像素写入磁盘，冷启动时直接读取</li>
+ * <li>XML 等非位图资源按目标尺寸绘制成位图</li>
+ * </ul>
+ * 拿到的位图用完后调用 {@link #release(Bitmap)} 归还
+ */
+public final class BitmapLoader {
+
+    public interface Callback {
+        /**
+         * 在主线程回调
+         *
+         * @param bitmap 解码失败时为 null
+         */
+        void onBitmapLoaded(Bitmap bitmap);
+    }
+
+    /** 复用池最多保留的位图数 **/
+    private static final int MAX_REUSABLE = 4;
+
+    private static BitmapLoader instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "SportsView-decode");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final LruCache<String, Bitmap> cache;
+    /** 资源的原始尺寸 {宽, 高} **/
+    private final Map<Integer, int[]> bounds = new HashMap<>();
+    /** 正在解码的 key 和等待结果的回调 **/
+    private final Map<String, List<Callback>> pending = new HashMap<>();
+    /** 交给调用方、尚未归还的位图和次数 **/
+    private final Map<Bitmap, int[]> references = new IdentityHashMap<>();
+    /** 缓存中的位图和它的 key，归还时据此判断是否还在缓存中 **/
+    private final Map<Bitmap, String> keys = new IdentityHashMap<>();
+    /** 没有引用也不在缓存中的位图，可以作为 inBitmap **/
+    private final List<Bitmap> reusable = new ArrayList<>();
+    /** 只在解码时使用，为 null 时不读写磁盘 **/
+    private volatile DiskBitmapCache diskCache;
+
+    public static synchronized BitmapLoader getInstance() {
+        if (instance == null) {
+            instance = new BitmapLoader((int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8));
+        }
+        return instance;
+    }
+
+    private BitmapLoader(int maxBytes) {
+        cache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                synchronized (BitmapLoader.this) {
+                    keys.remove(oldValue);
+                    if (!references.containsKey(oldValue)) {
+                        addReusable(oldValue);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 开启磁盘缓存，在第一次加载之前调用，重复调用无效
+     */
+    public synchronized void enableDiskCache(Context context) {
+        if (diskCache != null) {
+            return;
+        }
+        final DiskBitmapCache diskCache = new DiskBitmapCache(context.getApplicationContext());
+        this.diskCache = diskCache;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                diskCache.trim();
+            }
+        });
+    }
+
+    /**
+     * 按比例缩放资源，使其铺满 width x height（可能超出一边）
+     *
+     * @param config 不透明的图片可用 {@link Bitmap.Config#RGB_565} 减半内存
+     * @param callback 没有缓存时解码完成后在主线程回调，为 null 时只预加载
+     * @return 已缓存的位图，没有时返回 null 并开始后台解码
+     */
+    public synchronized Bitmap load(final Resources resources, final int id, final int width, final int height,
+                                    final Bitmap.Config config, Callback callback) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        final String key = id + "/" + width + "x" + height + "/" + config;
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            acquire(cached);
+            return cached;
+        }
+        List<Callback> callbacks = pending.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return null;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        pending.put(key, callbacks);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                final Bitmap bitmap = decode(resources, id, width, height, config);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver(key, bitmap);
+                    }
+                });
+            }
+        });
+        return null;
+    }
+
+    /**
+     * 归还 {@link #load} 得到的位图，不再绘制它之后调用
+     */
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+        int[] count = references.get(bitmap);
+        if (count == null) {
+            return;
+        }
+        if (--count[0] == 0) {
+            references.remove(bitmap);
+            if (!isCached(bitmap)) {
+                addReusable(bitmap);
+            }
+        }
+    }
+
+    private void deliver(String key, Bitmap bitmap) {
+        List<Callback> callbacks;
+        synchronized (this) {
+            callbacks = pending.remove(key);
+            if (bitmap != null) {
+                // 先记下 key，放入时可能立即被淘汰
+                keys.put(bitmap, key);
+                cache.put(key, bitmap);
+                for (int i = 0; i < callbacks.size(); i++) {
+                    if (callbacks.get(i) != null) {
+                        acquire(bitmap);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < callbacks.size(); i++) {
+            if (callbacks.get(i) != null) {
+                callbacks.get(i).onBitmapLoaded(bitmap);
+            }
+        }
+    }
+
+    private Bitmap decode(Resources resources, int id, int width, int height, Bitmap.Config config) {
+        DiskBitmapCache diskCache = this.diskCache;
+        if (diskCache != null) {
+            Bitmap reuse = takeReusable(config, (long) width * height * bytesPerPixel(config));
+            Bitmap bitmap = diskCache.read(id, width, height, config, reuse);
+            if (bitmap != null) {
+                return bitmap;
+            }
+            if (reuse != null) {
+                synchronized (this) {
+                    addReusable(reuse);
+                }
+            }
+        }
+        Bitmap bitmap = decodeResource(resources, id, width, height, config);
+        if (bitmap != null && diskCache != null) {
+            diskCache.write(id, width, height, config, bitmap);
+        }
+        return bitmap;
+    }
+
+    private Bitmap decodeResource(Resources resources, int id, int width, int height, Bitmap.Config config) {
+        int[] size = getBounds(resources, id);
+        if (size[0] <= 0 || size[1] <= 0) {
+            return rasterize(resources, id, width, height, config);
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = config;
+        options.inMutable = true;
+        // 按宽或高缩放，使图片铺满目标区域
+        if ((float) width / height > (float) size[0] / size[1]) {
+            options.inDensity = size[0];
+            options.inTargetDensity = width;
+        } else {
+            options.inDensity = size[1];
+            options.inTargetDensity = height;
+        }
+        float scale = (float) options.inTargetDensity / options.inDensity;
+        long bytes = (long) (int) (size[0] * scale + 0.5f) * (int) (size[1] * scale + 0.5f)
+                * bytesPerPixel(config);
+        options.inBitmap = takeReusable(config, bytes);
+        if (options.inBitmap != null) {
+            try {
+                return BitmapFactory.decodeResource(resources, id, options);
+            } catch (IllegalArgumentException e) {
+                // 尺寸估计不准时不能复用，重新分配
+                options.inBitmap = null;
+            }
+        }
+        return BitmapFactory.decodeResource(resources, id, options);
+    }
+
+    /**
+     * BitmapFactory 解不出的资源（如 shape）直接画到目标尺寸
+     */
+    private static Bitmap rasterize(Resources resources, int id, int width, int height, Bitmap.Config config) {
+        Drawable drawable;
+        try {
+            drawable = resources.getDrawable(id);
+        } catch (Resources.NotFoundException e) {
+            return null;
+        }
+        if (drawable == null) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(width, height, config);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private int[] getBounds(Resources resources, int id) {
+        synchronized (this) {
+            int[] size = bounds.get(id);
+            if (size != null) {
+                return size;
+            }
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, id, options);
+        int[] size = {options.outWidth, options.outHeight};
+        synchronized (this) {
+            bounds.put(id, size);
+        }
+        return size;
+    }
+
+    private synchronized Bitmap takeReusable(Bitmap.Config config, long bytes) {
+        for (int i = 0; i < reusable.size(); i++) {
+            Bitmap candidate = reusable.get(i);
+            if (candidate.getConfig() == config && candidate.getAllocationByteCount() >= bytes) {
+                reusable.remove(i);
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void addReusable(Bitmap bitmap) {
+        if (!bitmap.isMutable() || bitmap.isRecycled()) {
+            return;
+        }
+        if (reusable.size() == MAX_REUSABLE) {
+            reusable.remove(0).recycle();
+        }
+        reusable.add(bitmap);
+    }
+
+    private void acquire(Bitmap bitmap) {
+        int[] count = references.get(bitmap);
+        if (count == null) {
+            references.put(bitmap, new int[]{1});
+        } else {
+            count[0]++;
+        }
+    }
+
+    private boolean isCached(Bitmap bitmap) {
+        // 不遍历 snapshot()，它每次复制整个缓存
+        String key = keys.get(bitmap);
+        return key != null && cache.get(key) == bitmap;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        return config == Bitmap.Config.RGB_565 ? 2 : config == Bitmap.Config.ALPHA_8 ? 1 : 4;
+    }
+}
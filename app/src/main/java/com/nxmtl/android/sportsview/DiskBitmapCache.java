@@ -0,0 +1,154 @@
+package com.nxmtl.android.sportsview;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import androidx.core.content.pm.PackageInfoCompat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 已缩放位图的磁盘缓存：像素原样写入文件，冷启动时内存映射后一次复制进位图，
+ * 省去 PNG 解码和缩放。文件名包含应用版本、安装时间、屏幕密度、资源 id、目标尺寸和格式，
+ * 版本、重新安装或密度变化后旧文件在 {@link #trim()} 时删除。只在解码线程使用
+ */
+class DiskBitmapCache {
+
+    private static final String TAG = "DiskBitmapCache";
+    /** "SPBT" **/
+    private static final int MAGIC = 0x53504254;
+    /** magic、宽、高、格式 **/
+    private static final int HEADER_SIZE = 16;
+
+    private final File directory;
+    /** 当前版本、安装时间和密度的文件名前缀 **/
+    private final String prefix;
+
+    DiskBitmapCache(Context context) {
+        directory = new File(context.getCacheDir(), "sportsview-bitmaps");
+        long versionCode = 0;
+        long lastUpdateTime = 0;
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            versionCode = PackageInfoCompat.getLongVersionCode(info);
+            // 调试时版本号不变，资源可能已经换了
+            lastUpdateTime = info.lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            // 自己的包总能找到
+        }
+        prefix = "v" + versionCode + "-" + Long.toHexString(lastUpdateTime) + "-"
+                + context.getResources().getDisplayMetrics().densityDpi + "dpi-";
+    }
+
+    /**
+     * 删除其他版本、安装或密度留下的文件
+     */
+    void trim() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!file.getName().startsWith(prefix)) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * @param reuse 可复用的位图，大小足够时重新配置后使用，可为 null
+     * @return 没有缓存或读取失败时返回 null
+     */
+    Bitmap read(int id, int width, int height, Bitmap.Config config, Bitmap reuse) {
+        File file = fileFor(id, width, height, config);
+        if (!file.isFile()) {
+            return null;
+        }
+        RandomAccessFile input = null;
+        try {
+            input = new RandomAccessFile(file, "r");
+            FileChannel channel = input.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                file.delete();
+                return null;
+            }
+            int bitmapWidth = buffer.getInt();
+            int bitmapHeight = buffer.getInt();
+            if (buffer.getInt() != config.ordinal() || bitmapWidth <= 0 || bitmapHeight <= 0) {
+                file.delete();
+                return null;
+            }
+            Bitmap bitmap;
+            if (reuse != null && reuse.getAllocationByteCount() >= buffer.remaining()) {
+                reuse.reconfigure(bitmapWidth, bitmapHeight, config);
+                bitmap = reuse;
+            } else {
+                bitmap = Bitmap.createBitmap(bitmapWidth, bitmapHeight, config);
+            }
+            if (buffer.remaining() < bitmap.getByteCount()) {
+                file.delete();
+                return null;
+            }
+            bitmap.copyPixelsFromBuffer(buffer);
+            return bitmap;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Could not read " + file, e);
+            file.delete();
+            return null;
+        } finally {
+            close(input);
+        }
+    }
+
+    void write(int id, int width, int height, Bitmap.Config config, Bitmap bitmap) {
+        if (bitmap.getConfig() != config || !directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File file = fileFor(id, width, height, config);
+        File temporary = new File(directory, file.getName() + ".tmp");
+        RandomAccessFile output = null;
+        try {
+            output = new RandomAccessFile(temporary, "rw");
+            // 像素直接复制进映射的文件，不经过堆上的缓冲区
+            int size = HEADER_SIZE + bitmap.getByteCount();
+            output.setLength(size);
+            MappedByteBuffer buffer = output.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(bitmap.getWidth()).putInt(bitmap.getHeight()).putInt(config.ordinal());
+            bitmap.copyPixelsToBuffer(buffer);
+            buffer.force();
+            output.close();
+            output = null;
+            // 写完再改名，读到的文件总是完整的
+            if (!temporary.renameTo(file)) {
+                temporary.delete();
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Could not write " + file, e);
+            temporary.delete();
+        } finally {
+            close(output);
+        }
+    }
+
+    private File fileFor(int id, int width, int height, Bitmap.Config config) {
+        return new File(directory, prefix + Integer.toHexString(id) + "-" + width + "x" + height + "-" + config);
+    }
+
+    private static void close(java.io.Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // 已经读完或写完
+            }
+        }
+    }
+}
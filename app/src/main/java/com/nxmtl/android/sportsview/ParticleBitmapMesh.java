@@ -0,0 +1,166 @@
+package com.nxmtl.android.sportsview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Mesh of the particles of a {@link ParticleFrame} in the layout of Canvas.drawBitmapMesh, which
+ * hardware accelerated canvases support from API 18 while drawVertices needs API 29.
+ * <p>
+ * drawBitmapMesh stretches a regular grid of cells over the whole bitmap, so a cell cannot pick its
+ * frame of the {@link SpriteAtlas}. The mesh gets its own texture instead: the frames are drawn in
+ * the even columns of cells, and repeated every fourth row of cells for each particle of a batch,
+ * with transparent cells in between. A particle moves the corners of the cell of its frame and
+ * puts every other vertex of its rows on those corners, so all the cells in between have no area
+ * and are not drawn. The buffers are reused, filling a batch does not allocate.
+ */
+class ParticleBitmapMesh {
+
+	/** Largest texture side, supported by every GPU */
+	private static final int MAX_TEXTURE_SIZE = 2048;
+	/** Rows of vertices of a particle: top and bottom of its quad, then two to reach the next one */
+	private static final int ROWS_PER_PARTICLE = 4;
+
+	private final SpriteSheet mSheet;
+	private final int mCellWidth;
+	private final int mCellHeight;
+	/** Vertices of a row, two per frame */
+	private final int mColumns;
+
+	final Bitmap mBitmap;
+	final int mMeshWidth;
+	final int mMeshHeight;
+	/** Particles drawn by one call */
+	final int mBatchSize;
+	/** x, y of each vertex of a batch, row by row */
+	final float[] mVertices;
+	final int[] mColors;
+
+	private ParticleBitmapMesh(Bitmap atlas, SpriteSheet sheet, int cellWidth, int cellHeight, int batchSize) {
+		mSheet = sheet;
+		mCellWidth = cellWidth;
+		mCellHeight = cellHeight;
+		mBatchSize = batchSize;
+		int frames = sheet.getFrameCount();
+		mColumns = frames * 2;
+		mMeshWidth = mColumns - 1;
+		mMeshHeight = batchSize * ROWS_PER_PARTICLE - 1;
+		mVertices = new float[mColumns * (mMeshHeight + 1) * 2];
+		mColors = new int[mColumns * (mMeshHeight + 1)];
+
+		mBitmap = Bitmap.createBitmap(mMeshWidth * cellWidth, mMeshHeight * cellHeight, Bitmap.Config.ARGB_8888);
+		Canvas canvas = new Canvas(mBitmap);
+		Rect source = new Rect();
+		Rect destination = new Rect();
+		for (int frame=0; frame<frames; frame++) {
+			source.set(sheet.mFrameLeft[frame], sheet.mFrameTop[frame],
+					sheet.mFrameLeft[frame] + sheet.mFrameWidth[frame], sheet.mFrameTop[frame] + sheet.mFrameHeight[frame]);
+			for (int particle=0; particle<batchSize; particle++) {
+				int left = frame * 2 * cellWidth;
+				int top = particle * ROWS_PER_PARTICLE * cellHeight;
+				destination.set(left, top, left + sheet.mFrameWidth[frame], top + sheet.mFrameHeight[frame]);
+				canvas.drawBitmap(atlas, source, destination, null);
+			}
+		}
+	}
+
+	/**
+	 * @return null if the texture would be too large for the frames of the sheet
+	 */
+	static ParticleBitmapMesh create(Bitmap atlas, SpriteSheet sheet, int capacity) {
+		int cellWidth = 1;
+		int cellHeight = 1;
+		for (int frame=0; frame<sheet.getFrameCount(); frame++) {
+			cellWidth = Math.max(cellWidth, sheet.mFrameWidth[frame]);
+			cellHeight = Math.max(cellHeight, sheet.mFrameHeight[frame]);
+		}
+		if ((sheet.getFrameCount() * 2 - 1) * cellWidth > MAX_TEXTURE_SIZE) {
+			return null;
+		}
+		int batchSize = Math.min(capacity, (MAX_TEXTURE_SIZE / cellHeight + 1) / ROWS_PER_PARTICLE);
+		if (batchSize < 1) {
+			return null;
+		}
+		return new ParticleBitmapMesh(atlas, sheet, cellWidth, cellHeight, batchSize);
+	}
+
+	/**
+	 * Writes the particles of the given batch of the frame, the slots left in the batch collapse
+	 * onto the last particle
+	 */
+	void fill(ParticleFrame particles, int batch) {
+		float[] vertices = mVertices;
+		int[] colors = mColors;
+		SpriteSheet sheet = mSheet;
+		int columns = mColumns;
+		int first = batch * mBatchSize;
+		int count = Math.min(particles.mCount - first, mBatchSize);
+		float lastX = 0;
+		float lastY = 0;
+		for (int j=0; j<count; j++) {
+			int i = first + j;
+			int frame = particles.mFrame[i];
+			int halfWidth = sheet.mFrameWidth[frame] / 2;
+			int halfHeight = sheet.mFrameHeight[frame] / 2;
+			float rotation = particles.mRotation[i];
+			float scale = particles.mScale[i];
+			float cos = FastMath.cosDeg(rotation) * scale;
+			float sin = FastMath.sinDeg(rotation) * scale;
+			float centerX = particles.mX[i] + halfWidth;
+			float centerY = particles.mY[i] + halfHeight;
+			// Edges of the cell around the rotation center of the frame, rotated and scaled
+			float leftX = -halfWidth * cos;
+			float leftY = -halfWidth * sin;
+			float rightX = (mCellWidth - halfWidth) * cos;
+			float rightY = (mCellWidth - halfWidth) * sin;
+			float topX = halfHeight * sin;
+			float topY = -halfHeight * cos;
+			float bottomX = -(mCellHeight - halfHeight) * sin;
+			float bottomY = (mCellHeight - halfHeight) * cos;
+			float topLeftX = centerX + leftX + topX;
+			float topLeftY = centerY + leftY + topY;
+			float bottomLeftX = centerX + leftX + bottomX;
+			float bottomLeftY = centerY + leftY + bottomY;
+
+			int row = j * ROWS_PER_PARTICLE;
+			if (j > 0) {
+				// The last row of the previous particle joins this one without area
+				fillRow(vertices, (row - 1) * columns, columns, columns, topLeftX, topLeftY, 0, 0);
+			}
+			int split = frame * 2 + 1;
+			fillRow(vertices, row * columns, columns, split,
+					topLeftX, topLeftY, centerX + rightX + topX, centerY + rightY + topY);
+			fillRow(vertices, (row + 1) * columns, columns, split,
+					bottomLeftX, bottomLeftY, centerX + rightX + bottomX, centerY + rightY + bottomY);
+			fillRow(vertices, (row + 2) * columns, columns, columns, bottomLeftX, bottomLeftY, 0, 0);
+			fillRow(vertices, (row + 3) * columns, columns, columns, bottomLeftX, bottomLeftY, 0, 0);
+			lastX = bottomLeftX;
+			lastY = bottomLeftY;
+
+			// Tint and alpha of the particle, modulating the sprite
+			int color = (particles.mAlpha[i] << 24) | particles.mTint[i];
+			int c = row * columns;
+			for (int k=0; k<columns * ROWS_PER_PARTICLE; k++) {
+				colors[c + k] = color;
+			}
+		}
+		int used = count * ROWS_PER_PARTICLE * columns;
+		int unused = colors.length - used;
+		fillRow(vertices, used, unused, unused, lastX, lastY, 0, 0);
+	}
+
+	/**
+	 * Puts count vertices from the given one, the first split of them at the first point and the
+	 * others at the second one
+	 */
+	private static void fillRow(float[] vertices, int vertex, int count, int split,
+								float x1, float y1, float x2, float y2) {
+		int v = vertex * 2;
+		for (int k=0; k<count; k++) {
+			boolean first = k < split;
+			vertices[v++] = first ? x1 : x2;
+			vertices[v++] = first ? y1 : y2;
+		}
+	}
+}
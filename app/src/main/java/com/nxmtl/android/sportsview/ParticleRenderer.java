@@ -0,0 +1,136 @@
+package com.nxmtl.android.sportsview;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.LightingColorFilter;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.os.Build;
+
+/**
+ * Draws the particles of a {@link ParticleSystem}, from the newest {@link ParticleFrame} it
+ * published, so drawing never reads the particles the simulation is updating.
+ * <p>
+ * All the particles are sent in a single {@link Canvas#drawVertices} call: each particle is a
+ * quad of two triangles textured with its frame of the {@link SpriteAtlas}, which is applied
+ * through a {@link BitmapShader}, and the alpha and tint go in the vertex colors. The buffers are
+ * built by a {@link ParticleMesh} sized for the capacity of the system and reused on every frame.
+ * Hardware accelerated canvases only support drawVertices from API 29. Below that the particles
+ * go through drawBitmapMesh, supported from API 18, in batches of a {@link ParticleBitmapMesh},
+ * and only an atlas too large for it falls back to drawing the particles one by one.
+ */
+public class ParticleRenderer {
+
+	private final AndroidParticleSystem mParticleSystem;
+	private final Bitmap mAtlas;
+	private final SpriteSheet mSheet;
+	private final Paint mAtlasPaint;
+
+	private final ParticleMesh mMesh;
+	/** Hardware accelerated path below API 29, null if the atlas does not fit its texture */
+	private final ParticleBitmapMesh mBitmapMesh;
+	private final Paint mMeshPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+	// Fallback path
+	/** Direct mapped cache of the tint filters, so drawing does not allocate for the usual few tints */
+	private static final int TINT_FILTER_CACHE_SIZE = 32;
+	private int mTint = 0xFFFFFF;
+	private final int[] mFilterTints = new int[TINT_FILTER_CACHE_SIZE];
+	private final LightingColorFilter[] mFilters = new LightingColorFilter[TINT_FILTER_CACHE_SIZE];
+	private final Rect mFrameRect = new Rect();
+	private final RectF mDestinationRect = new RectF();
+	private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+	public ParticleRenderer(AndroidParticleSystem particleSystem) {
+		mParticleSystem = particleSystem;
+		mAtlas = particleSystem.getSpriteAtlas().getBitmap();
+		mSheet = particleSystem.getSpriteAtlas().getSheet();
+		mAtlasPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+		mAtlasPaint.setShader(new BitmapShader(mAtlas, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+		mMesh = new ParticleMesh(mSheet, particleSystem.getParticles().mCapacity);
+		mBitmapMesh = Build.VERSION.SDK_INT < Build.VERSION_CODES.Q
+				? ParticleBitmapMesh.create(mAtlas, mSheet, particleSystem.getParticles().mCapacity) : null;
+	}
+
+	/**
+	 * Draws the particles of the newest published frame
+	 */
+	public void draw(Canvas canvas) {
+		ParticleFrame frame = mParticleSystem.acquireFrame();
+		if (canvas.isHardwareAccelerated() && Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+			if (mBitmapMesh != null) {
+				drawMesh(canvas, frame);
+			} else {
+				drawEach(canvas, frame);
+			}
+		} else {
+			drawBatched(canvas, frame);
+		}
+	}
+
+	private void drawBatched(Canvas canvas, ParticleFrame frame) {
+		ParticleMesh mesh = mMesh;
+		int count = mesh.fill(frame);
+		for (int first=0; first<count; first+=ParticleMesh.MAX_PARTICLES_PER_BATCH) {
+			int batch = Math.min(count - first, ParticleMesh.MAX_PARTICLES_PER_BATCH);
+			int vertexOffset = first * ParticleMesh.VERTICES_PER_PARTICLE;
+			canvas.drawVertices(Canvas.VertexMode.TRIANGLES, batch * ParticleMesh.VERTICES_PER_PARTICLE * 2,
+					mesh.mVertices, vertexOffset * 2, mesh.mTextures, vertexOffset * 2, mesh.mColors, vertexOffset,
+					mesh.mIndices, 0, batch * ParticleMesh.INDICES_PER_PARTICLE, mAtlasPaint);
+		}
+	}
+
+	private void drawMesh(Canvas canvas, ParticleFrame frame) {
+		ParticleBitmapMesh mesh = mBitmapMesh;
+		for (int batch=0; batch * mesh.mBatchSize < frame.mCount; batch++) {
+			// The canvas copies the buffers when it records the call, they can be refilled
+			mesh.fill(frame, batch);
+			canvas.drawBitmapMesh(mesh.mBitmap, mesh.mMeshWidth, mesh.mMeshHeight, mesh.mVertices, 0,
+					mesh.mColors, 0, mMeshPaint);
+		}
+	}
+
+	private void drawEach(Canvas canvas, ParticleFrame particles) {
+		SpriteSheet sheet = mSheet;
+		for (int i = 0; i < particles.mCount; i++) {
+			int frame = particles.mFrame[i];
+			int width = sheet.mFrameWidth[frame];
+			int height = sheet.mFrameHeight[frame];
+			int halfWidth = width / 2;
+			int halfHeight = height / 2;
+			mFrameRect.set(sheet.mFrameLeft[frame], sheet.mFrameTop[frame],
+					sheet.mFrameLeft[frame] + width, sheet.mFrameTop[frame] + height);
+			mDestinationRect.set(-halfWidth, -halfHeight, width - halfWidth, height - halfHeight);
+			canvas.save();
+			canvas.translate(particles.mX[i] + halfWidth, particles.mY[i] + halfHeight);
+			canvas.rotate(particles.mRotation[i]);
+			canvas.scale(particles.mScale[i], particles.mScale[i]);
+			mPaint.setAlpha(particles.mAlpha[i]);
+			setTint(particles.mTint[i]);
+			canvas.drawBitmap(mAtlas, mFrameRect, mDestinationRect, mPaint);
+			canvas.restore();
+		}
+	}
+
+	private void setTint(int tint) {
+		if (tint == mTint) {
+			return;
+		}
+		mTint = tint;
+		mPaint.setColorFilter(tint == 0xFFFFFF ? null : getFilter(tint));
+	}
+
+	private LightingColorFilter getFilter(int tint) {
+		int slot = (tint ^ tint >>> 8 ^ tint >>> 16) & (TINT_FILTER_CACHE_SIZE - 1);
+		LightingColorFilter filter = mFilters[slot];
+		if (filter == null || mFilterTints[slot] != tint) {
+			filter = new LightingColorFilter(tint, 0);
+			mFilters[slot] = filter;
+			mFilterTints[slot] = tint;
+		}
+		return filter;
+	}
+}
@@ -0,0 +1,79 @@
+package com.nxmtl.android.sportsview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * 离屏缓存层：把每帧不变的装饰绘制到一张以视图中心为中心的正方形位图上，
+ * 之后每帧只需一次（可带旋转的）drawBitmap。内容变化时调用 {@link #invalidate()} 重绘。
+ * 内容只有白色时用 ALPHA_8，只存透明度，按白色绘制，内存是 ARGB_8888 的四分之一
+ */
+class RenderLayer {
+
+    private final Bitmap.Config config;
+    private final Canvas layerCanvas = new Canvas();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private Bitmap bitmap;
+    private int size;
+    private boolean valid;
+
+    RenderLayer(Bitmap.Config config) {
+        this.config = config;
+        // ALPHA_8 位图按画笔颜色着色，其他格式只用到画笔的不透明度
+        paint.setColor(Color.WHITE);
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * 开始重绘，返回的画布已清空，并平移到与视图相同的坐标系
+     *
+     * @param size 位图边长 px
+     */
+    Canvas beginRecording(int size, float centerX, float centerY) {
+        if (bitmap == null || this.size != size) {
+            release();
+            bitmap = Bitmap.createBitmap(size, size, config);
+            this.size = size;
+        } else {
+            bitmap.eraseColor(0);
+        }
+        layerCanvas.setBitmap(bitmap);
+        layerCanvas.save();
+        layerCanvas.translate(size / 2f - centerX, size / 2f - centerY);
+        return layerCanvas;
+    }
+
+    void endRecording() {
+        layerCanvas.restore();
+        layerCanvas.setBitmap(null);
+        valid = true;
+    }
+
+    /**
+     * 以 (centerX, centerY) 为中心绘制缓存，并绕中心旋转 degrees 度
+     */
+    void draw(Canvas canvas, float centerX, float centerY, float degrees) {
+        canvas.save();
+        canvas.rotate(degrees, centerX, centerY);
+        canvas.drawBitmap(bitmap, centerX - size / 2f, centerY - size / 2f, paint);
+        canvas.restore();
+    }
+
+    /**
+     * 只丢弃引用，不调用 recycle：硬件加速时渲染线程可能还在使用上一帧记录的位图，
+     * 由 GC 回收
+     */
+    void release() {
+        bitmap = null;
+        valid = false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * 运动数据的线程安全入口：任意线程都可以高频写入，只保留最新的一份（后写覆盖先写），
+ * 绘制线程每帧最多取一次。写入和读取都使用预先分配的对象，不产生垃圾
+ */
+public class SportsDataFeed {
+
+    /** 最新写入的数据，由自身加锁保护 **/
+    private final SportsData latest = new SportsData();
+    /** 有尚未取走的数据 **/
+    private volatile boolean pending;
+
+    /**
+     * 写入最新数据，可在任意线程调用
+     *
+     * @return 数据是否和上一次写入的不同，相同时忽略
+     */
+    public boolean post(int step, float distance, int calories, int progress) {
+        synchronized (latest) {
+            if (latest.step == step && latest.distance == distance
+                    && latest.calories == calories && latest.progress == progress) {
+                return false;
+            }
+            latest.step = step;
+            latest.distance = distance;
+            latest.calories = calories;
+            latest.progress = progress;
+            pending = true;
+            return true;
+        }
+    }
+
+    /**
+     * 是否有尚未取走的数据，不加锁
+     */
+    public boolean hasPending() {
+        return pending;
+    }
+
+    /**
+     * 取走最新数据
+     *
+     * @param out 复制到这里
+     * @return 没有新数据时返回 false，out 不变
+     */
+    public boolean poll(SportsData out) {
+        if (!pending) {
+            return false;
+        }
+        synchronized (latest) {
+            out.step = latest.step;
+            out.distance = latest.distance;
+            out.calories = latest.calories;
+            out.progress = latest.progress;
+            pending = false;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.nxmtl.android.sportsview;
+
+import android.graphics.RectF;
+import android.util.DisplayMetrics;
+
+/**
+ * 绘制用到的全部尺寸，单位 px。密度在构造和配置变化时读取，几何尺寸在视图大小变化时计算，
+ * 绘制时只读取字段，不再换算 dp 或按宽度比例计算
+ */
+class SportsLayout {
+
+    /** 圆环半径占视图宽度的比例 **/
+    private static final float BIG_CIRCLE_RADIUS_RATIO = 0.38f;
+    /** 进度虚线圈半径占视图宽度的比例 **/
+    private static final float PROGRESS_RADIUS_RATIO = 0.32f;
+
+    /** 圆环半径大小 dp （画笔大小）**/
+    private static final int BIG_CIRCLE_SIZE = 16;
+    /** 圆环光晕效果大小 dp **/
+    private static final float CIRCLE_BLUR_SIZE = 24;
+    /** 光晕的层数 **/
+    static final int BLUR_LAYERS = 4;
+    /** 线圈圆心和角度的随机偏移 dp **/
+    private static final float LINE_CIRCLE_JITTER = 5;
+    /** 线圈画笔大小 dp **/
+    private static final float LINE_CIRCLE_WIDTH = 1f;
+
+    /** 虚线画笔大小 dp **/
+    private static final float DOTTED_CIRCLE_WIDTH = 2f;
+    /** 虚线间隔大小 dp **/
+    private static final float DOTTED_CIRCLE_GAG = 1f;
+    /** 实线画笔大小 dp **/
+    private static final float SOLID_CIRCLE_WIDTH = 2f;
+    /** 实线头的圆点大小 dp **/
+    private static final float DOT_SIZE = 8f;
+
+    /** 手表图标偏移 dp **/
+    private static final int WATCH_OFFSET_DP = 84;
+    /** 手表图标大小 dp **/
+    private static final int WATCH_SIZE = 24;
+    /** 粒子圆点大小 dp，和 dot.xml 一致 **/
+    private static final int PARTICLE_DOT_SIZE = 8;
+
+    /** 步数字号 sp **/
+    private static final float MAIN_TITLE_SIZE = 64;
+    /** 副标题字号 sp **/
+    private static final float SUB_TITLE_SIZE = 14;
+    /** 副标题基线在圆心下方的距离 sp **/
+    private static final float SUB_TITLE_OFFSET = 50;
+
+    /** 读取尺寸时的密度，用于判断配置变化 **/
+    private float density;
+    private float scaledDensity;
+
+    /** 只和密度有关的尺寸 **/
+    float bigCircleStrokeWidth;
+    /** 每层光晕向上偏移的距离 **/
+    float blurStep;
+    float lineCircleStrokeWidth;
+    float lineCircleJitter;
+    float dottedCircleStrokeWidth;
+    float dottedCircleGap;
+    float solidCircleStrokeWidth;
+    float dotStrokeWidth;
+    float watchOffset;
+    int watchSize;
+    int particleDotSize;
+    float mainTitleTextSize;
+    float subTitleTextSize;
+    float subTitleOffsetY;
+
+    /** 和视图大小有关的尺寸 **/
+    int width;
+    int height;
+    float centerX;
+    float centerY;
+    float bigCircleRadius;
+    /** 各层光晕的外接矩形，圆环弹出动画之外使用 **/
+    final RectF[] blurRects = new RectF[BLUR_LAYERS];
+    float progressRadius;
+    final RectF progressRect = new RectF();
+    /** 粒子发射区间：圆环右侧的一段水平线 **/
+    int emitterMinX;
+    int emitterMaxX;
+    int emitterY;
+    /** 圆环、光晕和线圈缓存层的边长，包含画笔宽度和光晕向上的偏移 **/
+    int layerSize;
+    /** 文字和手表图标缓存层的边长 **/
+    int textLayerSize;
+
+    SportsLayout(DisplayMetrics metrics) {
+        for (int i = 0; i < BLUR_LAYERS; i++) {
+            blurRects[i] = new RectF();
+        }
+        setDensity(metrics);
+    }
+
+    /**
+     * 复制全部尺寸，用于交给其他线程
+     */
+    SportsLayout(SportsLayout other) {
+        density = other.density;
+        scaledDensity = other.scaledDensity;
+        bigCircleStrokeWidth = other.bigCircleStrokeWidth;
+        blurStep = other.blurStep;
+        lineCircleStrokeWidth = other.lineCircleStrokeWidth;
+        lineCircleJitter = other.lineCircleJitter;
+        dottedCircleStrokeWidth = other.dottedCircleStrokeWidth;
+        dottedCircleGap = other.dottedCircleGap;
+        solidCircleStrokeWidth = other.solidCircleStrokeWidth;
+        dotStrokeWidth = other.dotStrokeWidth;
+        watchOffset = other.watchOffset;
+        watchSize = other.watchSize;
+        particleDotSize = other.particleDotSize;
+        mainTitleTextSize = other.mainTitleTextSize;
+        subTitleTextSize = other.subTitleTextSize;
+        subTitleOffsetY = other.subTitleOffsetY;
+        width = other.width;
+        height = other.height;
+        centerX = other.centerX;
+        centerY = other.centerY;
+        bigCircleRadius = other.bigCircleRadius;
+        for (int i = 0; i < BLUR_LAYERS; i++) {
+            blurRects[i] = new RectF(other.blurRects[i]);
+        }
+        progressRadius = other.progressRadius;
+        progressRect.set(other.progressRect);
+        emitterMinX = other.emitterMinX;
+        emitterMaxX = other.emitterMaxX;
+        emitterY = other.emitterY;
+        layerSize = other.layerSize;
+        textLayerSize = other.textLayerSize;
+    }
+
+    /**
+     * 按新的密度重新换算，之后需要重新调用 {@link #setSize(int, int)}
+     *
+     * @return 密度或字体缩放是否变化
+     */
+    boolean setDensity(DisplayMetrics metrics) {
+        if (metrics.density == density && metrics.scaledDensity == scaledDensity) {
+            return false;
+        }
+        density = metrics.density;
+        scaledDensity = metrics.scaledDensity;
+        bigCircleStrokeWidth = dp(BIG_CIRCLE_SIZE);
+        blurStep = dp(CIRCLE_BLUR_SIZE) / BLUR_LAYERS;
+        lineCircleStrokeWidth = dp(LINE_CIRCLE_WIDTH);
+        lineCircleJitter = dp(LINE_CIRCLE_JITTER);
+        dottedCircleStrokeWidth = dp(DOTTED_CIRCLE_WIDTH);
+        dottedCircleGap = dp(DOTTED_CIRCLE_GAG);
+        solidCircleStrokeWidth = dp(SOLID_CIRCLE_WIDTH);
+        dotStrokeWidth = dp(DOT_SIZE);
+        watchOffset = dp(WATCH_OFFSET_DP);
+        watchSize = (int) dp(WATCH_SIZE);
+        particleDotSize = (int) dp(PARTICLE_DOT_SIZE);
+        mainTitleTextSize = sp(MAIN_TITLE_SIZE);
+        subTitleTextSize = sp(SUB_TITLE_SIZE);
+        subTitleOffsetY = sp(SUB_TITLE_OFFSET);
+        return true;
+    }
+
+    void setSize(int w, int h) {
+        width = w;
+        height = h;
+        centerX = w / 2f;
+        centerY = h / 2f;
+        bigCircleRadius = w * BIG_CIRCLE_RADIUS_RATIO;
+        for (int i = 0; i < BLUR_LAYERS; i++) {
+            blurRects[i].set(centerX - bigCircleRadius, centerY - bigCircleRadius - i * blurStep,
+                    centerX + bigCircleRadius, centerY + bigCircleRadius);
+        }
+        progressRadius = w * PROGRESS_RADIUS_RATIO;
+        progressRect.set(centerX - progressRadius, centerY - progressRadius,
+                centerX + progressRadius, centerY + progressRadius);
+        emitterMinX = (int) (centerX + bigCircleRadius);
+        emitterMaxX = (int) (emitterMinX + bigCircleStrokeWidth);
+        emitterY = (int) centerY;
+        layerSize = 2 * (int) Math.ceil(bigCircleRadius + bigCircleStrokeWidth + BLUR_LAYERS * blurStep);
+        textLayerSize = Math.max(layerSize, 2 * (int) Math.ceil(watchOffset + watchSize));
+    }
+
+    private float dp(float value) {
+        return value * density;
+    }
+
+    private float sp(float value) {
+        return value * scaledDensity;
+    }
+}
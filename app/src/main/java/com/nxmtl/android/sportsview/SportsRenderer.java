@@ -0,0 +1,887 @@
+package com.nxmtl.android.sportsview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.DashPathEffect;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.SweepGradient;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.OvershootInterpolator;
+
+import com.nxmtl.android.sportsview.metrics.FrameMetrics;
+
+import java.util.Random;
+
+/**
+ * 运动视图的状态、模拟和绘制，{@link SportsView} 和 {@link SportsTextureView} 共用
+ */
+public class SportsRenderer {
+
+    private static final int LINE_CIRCLE_NUM = 8;
+
+    /** 数据动画的时间常数 ms，显示值每经过这么长时间走完剩余差值的约 63% **/
+    private static final float DATA_ANIMATION_MILLIS = 150f;
+
+    /** 加载时圆环转速 度/秒 **/
+    private static final float LOADING_DEGREES_PER_SECOND = 150f;
+    /** 圆环转速 度/秒 **/
+    private static final float DEGREES_PER_SECOND = 30f;
+    /** 只有圆环缓慢转动时，每几帧模拟一次 **/
+    public static final int SLOW_FRAME_INTERVAL = 4;
+    /** 圆环弹出动画的起始半径比例 **/
+    private static final float BIG_CIRCLE_START_FACTOR = 0.6f;
+
+    private final Resources resources;
+
+    /** 外部接口相关 **/
+    /** 任意线程写入的最新数据 **/
+    private final SportsDataFeed sportsDataFeed = new SportsDataFeed();
+    /** 最新取到的数据，只在绘制线程使用 **/
+    private final SportsData targetData = new SportsData();
+    /** 正在显示的数据，只在绘制线程使用 **/
+    private final SportsData sportsData = new SportsData();
+    /** 步数和进度是否以动画趋近最新数据 **/
+    private volatile boolean animateSportsData;
+    /** 显示值还在趋近最新数据 **/
+    private volatile boolean sportsDataAnimating;
+    private long lastDataAnimationNanos;
+    /** 全部尺寸，在大小或配置变化时计算，只在绘制线程使用 **/
+    private final SportsLayout layout;
+    /** 绘制线程交给模拟线程的尺寸副本，只在模拟线程使用 **/
+    private SportsLayout simulationLayout;
+    /** 模拟线程的 Handler，为 null 时没有正在运行的模拟线程 **/
+    private volatile Handler simulationHandler;
+    /** 单独的绘制线程的 Handler，为 null 时在主线程绘制 **/
+    private volatile Handler drawHandler;
+    /** 圆环角度，只在模拟线程使用 **/
+    private float rotateDegree = 0;
+    /** 上一步的角度，用于插值，只在模拟线程使用 **/
+    private float previousRotateDegree = 0;
+    /** 模拟线程随粒子帧一起发布的插值后角度 **/
+    private volatile float publishedDegree = 0;
+    /** 本帧绘制使用的角度，只在绘制线程使用 **/
+    private float drawDegree = 0;
+    /** 粒子的模拟时间，只在加载时前进 **/
+    private long particleTimeMillis = 0;
+    private Random mRandom = new XoroshiroRandom();
+    private RectF rectF = new RectF(0, 0, 0, 0);
+
+    private Paint lineCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private Paint bigCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 步数画笔 **/
+    private Paint mainTitlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 副标题画笔 **/
+    private Paint subTitlePaint =new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 虚线画笔 **/
+    private Paint dottedCirclePaint=new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 实线画笔 **/
+    private Paint solidCirclePaint=new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** 点画笔 **/
+    private Paint dotPaint= new Paint(Paint.ANTI_ALIAS_FLAG);
+
+
+
+    /** 只在模拟线程使用，粒子图加载完成前为 null **/
+    private AndroidParticleSystem particleSystem;
+    /** 模拟线程换上粒子系统后发布给绘制线程 **/
+    private volatile ParticleRenderer particleRenderer;
+    /** 线圈对象只创建一次，大小变化时重新随机 **/
+    private final LineCircle[] mLineCircles = new LineCircle[LINE_CIRCLE_NUM];
+    private volatile boolean isLoading = false;
+    private float mainTitleOffsetY;
+    private float subTitleOffsetY;
+    private String subTitleSeparator;
+    /** 步数，格式化到复用的字符数组 **/
+    private final TextTemplate mainTitleText = new TextTemplate("%d");
+    /** 副标题，格式串只解析一次 **/
+    private TextTemplate subTitleText;
+    private float subTitleOffsetX;
+    Shader bigCircleLinearGradient;
+    Shader blurLinearGradient;
+    /** 只在绘制线程替换，加载完成的回调也转到绘制线程 **/
+    private Bitmap backgroundBitmap;
+    /** 只在绘制线程替换 **/
+    private Bitmap watchBitmap;
+    private final BitmapLoader bitmapLoader = BitmapLoader.getInstance();
+    /** 主线程的动画写入，绘制线程和模拟线程读取 **/
+    private volatile float bigCircleRadiusFactor=1;
+    private ValueAnimator objectAnimator;
+    private volatile boolean drawProgrees = false;
+    /** 圆环弹出动画进行中 **/
+    private volatile boolean bigCircleAnimating = false;
+    /** 性能统计，为 null 时不计时 **/
+    private volatile FrameMetrics metrics;
+
+    /** 圆环和光晕的缓存，绘制时整体旋转。圆环、线圈和进度都是白色，只存透明度 **/
+    private final RenderLayer bigCircleLayer = new RenderLayer(Bitmap.Config.ALPHA_8);
+    /** 加载时线圈的缓存，绘制时整体旋转 **/
+    private final RenderLayer lineCircleLayer = new RenderLayer(Bitmap.Config.ALPHA_8);
+    /** 进度虚线圈、进度弧和圆点的缓存 **/
+    private final RenderLayer progressLayer = new RenderLayer(Bitmap.Config.ALPHA_8);
+    /** 进度缓存层对应的进度 **/
+    private int layerProgress;
+    /** 文字和手表图标的缓存，数据变化时重绘，图标有颜色 **/
+    private final RenderLayer textLayer = new RenderLayer(Bitmap.Config.ARGB_8888);
+    /** 数据版本，显示值每次变化加一，只在绘制线程使用 **/
+    private int dataVersion;
+    /** 文字缓存层对应的数据版本 **/
+    private int textLayerVersion;
+    /** 文字缓存层中的手表图标 **/
+    private Bitmap textLayerWatch;
+    /** 缓存层当前对应的状态，切换时释放另一种状态的缓存 **/
+    private boolean layersLoading;
+
+    /** 本帧和上一帧动画内容（旋转的圆环、线圈和粒子）的范围，在模拟线程计算，用于 TextureView 局部刷新 **/
+    private final RectF contentRect = new RectF();
+    private final RectF previousContentRect = new RectF();
+    private final RectF dirtyRect = new RectF();
+    /** 文字、数据或尺寸变化后需要整体重绘一次 **/
+    private volatile boolean fullRedraw = true;
+
+
+    public SportsRenderer(Resources resources) {
+        this.resources = resources;
+        layout = new SportsLayout(resources.getDisplayMetrics());
+        simulationLayout = new SportsLayout(layout);
+        initText();
+        initProgressCircle();
+        initBigCircle();
+        initParticle();
+        initLineCircle();
+    }
+
+    /**
+     * @return 数据是否变化，没有变化时不需要重绘
+     */
+    public boolean setSportsData(SportsData sportsData){
+        return postSportsData(sportsData.step, sportsData.distance, sportsData.calories, sportsData.progress);
+    }
+
+    /**
+     * 写入最新数据，可在任意线程高频调用，不分配对象。多次写入只保留最后一次，
+     * 绘制时每帧最多取一次
+     *
+     * @return 数据是否变化
+     */
+    public boolean postSportsData(int step, float distance, int calories, int progress) {
+        return sportsDataFeed.post(step, distance, calories, progress);
+    }
+
+    /**
+     * 开启后步数和进度从当前显示值以动画趋近最新数据，否则直接跳到最新数据
+     */
+    public void setAnimateSportsData(boolean animate) {
+        animateSportsData = animate;
+    }
+
+    /**
+     * 在绘制线程取最新数据，推进数据动画，显示值变化时重绘文字缓存
+     */
+    private void updateSportsData() {
+        boolean polled = sportsDataFeed.poll(targetData);
+        SportsData shown = sportsData;
+        if (!polled && !sportsDataAnimating) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean changed = shown.distance != targetData.distance || shown.calories != targetData.calories;
+        shown.distance = targetData.distance;
+        shown.calories = targetData.calories;
+        if (animateSportsData) {
+            float elapsedMillis = sportsDataAnimating ? (now - lastDataAnimationNanos) / 1000000f : 16f;
+            float fraction = 1 - (float) Math.exp(-elapsedMillis / DATA_ANIMATION_MILLIS);
+            int step = approach(shown.step, targetData.step, fraction);
+            int progress = approach(shown.progress, targetData.progress, fraction);
+            changed |= step != shown.step || progress != shown.progress;
+            shown.step = step;
+            shown.progress = progress;
+        } else {
+            changed |= shown.step != targetData.step || shown.progress != targetData.progress;
+            shown.step = targetData.step;
+            shown.progress = targetData.progress;
+        }
+        lastDataAnimationNanos = now;
+        sportsDataAnimating = shown.step != targetData.step || shown.progress != targetData.progress;
+        if (changed) {
+            dataVersion++;
+        }
+    }
+
+    /**
+     * 从 value 向 target 走 fraction 的差值，至少走 1
+     */
+    private static int approach(int value, int target, float fraction) {
+        long diff = (long) target - value;
+        if (diff == 0) {
+            return value;
+        }
+        long delta = (long) (diff * fraction);
+        if (delta == 0) {
+            delta = diff > 0 ? 1 : -1;
+        }
+        return (int) (value + delta);
+    }
+
+    /**
+     * 在模拟线程调用，粒子图加载完成前为 null
+     */
+    public AndroidParticleSystem getParticleSystem() {
+        return particleSystem;
+    }
+
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 模拟线程启动后设置，尺寸和粒子系统的变化转到该线程生效，线程退出后传 null
+     */
+    public void setSimulationHandler(Handler handler) {
+        simulationHandler = handler;
+    }
+
+    /**
+     * 在绘制线程调用，模拟用到的尺寸和发射区域随后在模拟线程更新
+     */
+    public void setSize(int w, int h) {
+        layout.setSize(w, h);
+        float centerX = layout.centerX;
+        float centerY = layout.centerY;
+        float bigCircleRadius = layout.bigCircleRadius;
+
+        int endColor = Color.parseColor("#33FFFFFF");
+        int startColor = Color.WHITE;
+        SweepGradient lineSweepGradient = new SweepGradient(centerX, centerY, Color.TRANSPARENT,startColor);
+        lineCirclePaint.setShader(lineSweepGradient);
+        for (int i = 0; i < LINE_CIRCLE_NUM; i++) {
+            LineCircle circle = mLineCircles[i];
+            if (circle == null) {
+                circle = mLineCircles[i] = new LineCircle();
+            }
+            circle.degrees = mRandom.nextFloat()*layout.lineCircleJitter;
+            circle.radius = bigCircleRadius+mRandom.nextFloat()*layout.bigCircleStrokeWidth;
+            circle.centerX = mRandom.nextFloat()*layout.lineCircleJitter;
+            circle.centerY = mRandom.nextFloat()*layout.lineCircleJitter;
+            circle.rect.set(centerX+circle.centerX-circle.radius,centerY+circle.centerY-circle.radius,
+                    centerX+circle.centerX+circle.radius,centerY+circle.centerY+circle.radius);
+        }
+
+
+        bigCircleLinearGradient = new LinearGradient(
+                centerX, centerY - bigCircleRadius,
+                centerX , centerY+ bigCircleRadius,
+                startColor,
+                endColor,
+                Shader.TileMode.CLAMP);
+
+        blurLinearGradient = new LinearGradient(
+                centerX, centerY- bigCircleRadius,
+                centerX , centerY,
+                startColor,
+                endColor,
+                Shader.TileMode.CLAMP);
+        loadBackground(w, h);
+
+        bigCircleLayer.invalidate();
+        lineCircleLayer.invalidate();
+        progressLayer.invalidate();
+        textLayer.invalidate();
+        fullRedraw = true;
+
+        final SportsLayout snapshot = new SportsLayout(layout);
+        runOnSimulationThread(new Runnable() {
+            @Override
+            public void run() {
+                setSimulationLayout(snapshot);
+            }
+        });
+    }
+
+    /**
+     * 在单独的线程绘制时设置，位图加载完成的回调转到该线程处理，线程退出后传 null
+     */
+    public void setDrawHandler(Handler handler) {
+        drawHandler = handler;
+    }
+
+    /**
+     * 当前就是绘制线程，或绘制线程没有运行、已经退出时直接执行
+     */
+    private void runOnDrawThread(Runnable runnable) {
+        Handler handler = drawHandler;
+        if (handler == null || handler.getLooper() == Looper.myLooper() || !handler.post(runnable)) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * 当前就是模拟线程，或模拟线程没有运行、已经退出时直接执行
+     */
+    private void runOnSimulationThread(Runnable runnable) {
+        Handler handler = simulationHandler;
+        if (handler == null || handler.getLooper() == Looper.myLooper() || !handler.post(runnable)) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * 在模拟线程换上新的尺寸，只移动发射区域，发射器在模拟线程使用
+     */
+    private void setSimulationLayout(SportsLayout snapshot) {
+        simulationLayout = snapshot;
+        if (particleSystem != null) {
+            particleSystem.updateEmitPoint(emitterArea(snapshot));
+        }
+        // 按新的尺寸整体重绘
+        fullRedraw = true;
+    }
+
+    private static int[] emitterArea(SportsLayout layout) {
+        return new int[]{ layout.emitterMinX, layout.emitterMaxX, layout.emitterY, layout.emitterY };
+    }
+
+    /**
+     * 屏幕密度或字体缩放变化后重新换算尺寸、画笔和图标，在绘制线程调用
+     */
+    public void onConfigurationChanged() {
+        if (!layout.setDensity(resources.getDisplayMetrics())) {
+            return;
+        }
+        initText();
+        initProgressCircle();
+        initBigCircle();
+        initLineCircle();
+        if (layout.width > 0 && layout.height > 0) {
+            setSize(layout.width, layout.height);
+        }
+    }
+
+    /**
+     * 推进一个模拟步长
+     */
+    public void step(long timeMillis, long stepMillis) {
+        FrameMetrics metrics = this.metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        AndroidParticleSystem particleSystem = this.particleSystem;
+        if (isLoading && particleSystem != null) {
+            // 不加载时粒子不绘制，也不模拟
+            particleTimeMillis += stepMillis;
+            particleSystem.setStartTime(particleTimeMillis);
+            particleSystem.onUpdate(particleTimeMillis);
+        }
+        float degreesPerSecond = isLoading ? LOADING_DEGREES_PER_SECOND : DEGREES_PER_SECOND;
+        previousRotateDegree = rotateDegree;
+        rotateDegree = (rotateDegree + degreesPerSecond * stepMillis / 1000f) % 360;
+        if (metrics != null) {
+            metrics.recordStep(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 在模拟线程调用，同时发布插值后的粒子帧和圆环角度
+     */
+    public void setFrameInterpolation(float frameInterpolation) {
+        AndroidParticleSystem particleSystem = this.particleSystem;
+        ParticleFrame frame = particleSystem != null ? particleSystem.publishFrame(frameInterpolation) : null;
+        float degrees = interpolateDegree(frameInterpolation);
+        publishedDegree = degrees;
+        updateContentRect(frame, degrees);
+        FrameMetrics metrics = this.metrics;
+        if (metrics != null) {
+            // 粒子系统还没创建的帧也要记录
+            metrics.onFrame(particleSystem != null ? particleSystem.getPool() : null, System.nanoTime());
+        }
+    }
+
+    /**
+     * 背景不透明，用 RGB_565 解码。有缓存时直接换上，否则在后台解码，期间继续显示旧的背景
+     */
+    private void loadBackground(final int w, final int h) {
+        Bitmap cached = bitmapLoader.load(resources, R.drawable.bg_step_law, w, h, Bitmap.Config.RGB_565,
+                new DrawThreadCallback() {
+                    @Override
+                    void onBitmapLoadedOnDrawThread(Bitmap bitmap) {
+                        if (w != layout.width || h != layout.height) {
+                            // 尺寸已经又变了
+                            bitmapLoader.release(bitmap);
+                            return;
+                        }
+                        bitmapLoader.release(backgroundBitmap);
+                        backgroundBitmap = bitmap;
+                        fullRedraw = true;
+                    }
+                });
+        if (cached != null) {
+            bitmapLoader.release(backgroundBitmap);
+            backgroundBitmap = cached;
+        }
+    }
+
+    public void draw(Canvas canvas) {
+        FrameMetrics metrics = this.metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        // 整帧只读取一次，绘制中途模拟线程发布的新角度留到下一帧
+        drawDegree = publishedDegree;
+        updateSportsData();
+        if(backgroundBitmap!=null){
+            canvas.drawBitmap(backgroundBitmap,0,layout.height-backgroundBitmap.getHeight(),null);
+        }
+        boolean isLoading = this.isLoading;
+        if (isLoading != layersLoading) {
+            layersLoading = isLoading;
+            if (isLoading) {
+                bigCircleLayer.release();
+                progressLayer.release();
+            } else {
+                lineCircleLayer.release();
+            }
+        }
+        if(isLoading){
+            drawLineCircles(canvas);
+            drawParticle(canvas);
+        }else {
+            drawBigCircle(canvas);
+            drawProgressCircle(canvas);
+        }
+        drawText(canvas);
+        if (metrics != null) {
+            metrics.recordDraw(start, System.nanoTime() - start);
+        }
+    }
+
+
+
+    /**
+     * 两个模拟步之间插值后的圆环角度，在模拟线程调用
+     */
+    private float interpolateDegree(float interpolation) {
+        float degreeDelta = rotateDegree - previousRotateDegree;
+        if (degreeDelta < 0) {
+            degreeDelta += 360;
+        }
+        return previousRotateDegree + degreeDelta * interpolation;
+    }
+
+    /**
+     * 计算本帧动画内容的范围：旋转的缓存层或弹出动画中放大的圆环，加载时再加上按圆环角度旋转后的粒子范围
+     *
+     * @param frame 粒子系统还没有创建时为 null
+     */
+    private void updateContentRect(ParticleFrame frame, float degrees) {
+        SportsLayout simulation = simulationLayout;
+        previousContentRect.set(contentRect);
+        // 缓存层的边长已经包含画笔和光晕向上的偏移，弹出动画中半径最多超出约 20%，按超出的部分扩大
+        float factor = Math.max(1, bigCircleRadiusFactor);
+        float half = simulation.layerSize / 2f + simulation.bigCircleRadius * (factor - 1);
+        contentRect.set(simulation.centerX - half, simulation.centerY - half,
+                simulation.centerX + half, simulation.centerY + half);
+        if (isLoading && frame != null && frame.mCount > 0) {
+            // 粒子绕中心旋转绘制，取旋转后四个角的外接矩形
+            float cos = FastMath.cosDeg(degrees);
+            float sin = FastMath.sinDeg(degrees);
+            float left = frame.mLeft - simulation.centerX;
+            float top = frame.mTop - simulation.centerY;
+            float right = frame.mRight - simulation.centerX;
+            float bottom = frame.mBottom - simulation.centerY;
+            float x1 = left * cos - top * sin;
+            float y1 = left * sin + top * cos;
+            float x2 = right * cos - top * sin;
+            float y2 = right * sin + top * cos;
+            float x3 = right * cos - bottom * sin;
+            float y3 = right * sin + bottom * cos;
+            float x4 = left * cos - bottom * sin;
+            float y4 = left * sin + bottom * cos;
+            contentRect.union(simulation.centerX + Math.min(Math.min(x1, x2), Math.min(x3, x4)),
+                    simulation.centerY + Math.min(Math.min(y1, y2), Math.min(y3, y4)),
+                    simulation.centerX + Math.max(Math.max(x1, x2), Math.max(x3, x4)),
+                    simulation.centerY + Math.max(Math.max(y1, y2), Math.max(y3, y4)));
+        }
+    }
+
+    /**
+     * 在 {@link #setFrameInterpolation(float)} 之后调用，得到本帧需要重绘的区域：
+     * 上一帧和本帧动画内容范围的并集。只对 {@link SportsTextureView} 的 lockCanvas 有效，
+     * 硬件加速的 View 从 API 21 起忽略 invalidate 传入的区域
+     *
+     * @return false 表示不需要重绘
+     */
+    public boolean getDirtyRect(Rect dirty) {
+        SportsLayout simulation = simulationLayout;
+        if (fullRedraw) {
+            fullRedraw = false;
+            dirty.set(0, 0, simulation.width, simulation.height);
+            return simulation.width > 0 && simulation.height > 0;
+        }
+        dirtyRect.set(previousContentRect);
+        dirtyRect.union(contentRect);
+        if (sportsDataFeed.hasPending() || sportsDataAnimating) {
+            // 文字和进度会在绘制时更新
+            float half = simulation.textLayerSize / 2f;
+            dirtyRect.union(simulation.centerX - half, simulation.centerY - half,
+                    simulation.centerX + half, simulation.centerY + half);
+        }
+        // 加上 1px 的抗锯齿边缘
+        dirty.set((int) Math.floor(dirtyRect.left) - 1, (int) Math.floor(dirtyRect.top) - 1,
+                (int) Math.ceil(dirtyRect.right) + 1, (int) Math.ceil(dirtyRect.bottom) + 1);
+        return dirty.intersect(0, 0, simulation.width, simulation.height);
+    }
+
+    public void setIsLoading(boolean isLoading){
+        fullRedraw = true;
+        this.isLoading = isLoading;
+        if(!isLoading){
+            getObjectAnimator().start();
+        }
+    }
+
+    public boolean isLoading() {
+        return isLoading;
+    }
+
+    /**
+     * 模拟需要的帧间隔：加载粒子和圆环弹出动画需要每帧模拟，只有圆环缓慢转动时降低频率
+     */
+    public int getFrameInterval() {
+        return isLoading || bigCircleAnimating ? 1 : SLOW_FRAME_INTERVAL;
+    }
+
+    private void initText(){
+        final int watchSize = layout.watchSize;
+        Bitmap cachedWatch = bitmapLoader.load(resources, R.drawable.icon_headview_watch, watchSize, watchSize,
+                Bitmap.Config.ARGB_8888, new DrawThreadCallback() {
+                    @Override
+                    void onBitmapLoadedOnDrawThread(Bitmap bitmap) {
+                        if (watchSize != layout.watchSize) {
+                            // 密度已经又变了
+                            bitmapLoader.release(bitmap);
+                            return;
+                        }
+                        // 文字缓存层按图标重新绘制
+                        bitmapLoader.release(watchBitmap);
+                        watchBitmap = bitmap;
+                        fullRedraw = true;
+                    }
+                });
+        if (cachedWatch != null) {
+            // 配置变化时归还旧的图标
+            bitmapLoader.release(watchBitmap);
+            watchBitmap = cachedWatch;
+        }
+        mainTitlePaint.setColor(Color.WHITE);
+        mainTitlePaint.setTextAlign(Paint.Align.CENTER);
+        mainTitlePaint.setTextSize(layout.mainTitleTextSize);
+        mainTitleOffsetY = -(mainTitlePaint.getFontMetrics().ascent +
+                mainTitlePaint.getFontMetrics().descent) / 2;
+
+        subTitlePaint.setColor(Color.parseColor("#CCFFFFFF"));
+        subTitlePaint.setTextSize(layout.subTitleTextSize);
+        subTitleOffsetY = layout.subTitleOffsetY;
+        // 格式串和分隔符只读取一次
+        subTitleText = new TextTemplate(resources.getString(R.string.sub_title_format));
+        subTitleSeparator = resources.getString(R.string.sub_title_separator);
+    }
+
+    /**
+     * 在绘制线程把数据格式化到字符数组，不产生临时对象
+     */
+    private void refreshData(SportsData sportsData) {
+        mainTitleText.setValue(0, sportsData.step);
+        mainTitleText.format();
+        subTitleText.setValue(0, sportsData.distance / 1000);
+        subTitleText.setValue(1, sportsData.calories);
+        subTitleText.format();
+        // 副标题以分隔符居中
+        int separator = subTitleText.indexOf(subTitleSeparator);
+        if (separator < 0) {
+            subTitleOffsetX = -subTitlePaint.measureText(subTitleText.chars, 0, subTitleText.length) / 2;
+        } else {
+            float indexBefore = subTitlePaint.measureText(subTitleText.chars, 0, separator);
+            float indexAfter = subTitlePaint.measureText(subTitleText.chars, 0, separator + subTitleSeparator.length());
+            subTitleOffsetX = -(indexBefore + indexAfter) / 2;
+        }
+    }
+
+    private void drawText(Canvas canvas){
+        int version = dataVersion;
+        Bitmap watch = watchBitmap;
+        if (!textLayer.isValid() || textLayerVersion != version || textLayerWatch != watch) {
+            textLayerVersion = version;
+            textLayerWatch = watch;
+            refreshData(sportsData);
+            drawTextContent(textLayer.beginRecording(layout.textLayerSize, layout.centerX, layout.centerY));
+            textLayer.endRecording();
+        }
+        textLayer.draw(canvas, layout.centerX, layout.centerY, 0);
+    }
+
+    private void drawTextContent(Canvas canvas){
+        // 文字缓存层只在数据变化时重绘，直接绘制文字即可
+        canvas.drawText(mainTitleText.chars, 0, mainTitleText.length,
+                layout.centerX, layout.centerY + mainTitleOffsetY, mainTitlePaint);
+        canvas.drawText(subTitleText.chars, 0, subTitleText.length,
+                layout.centerX + subTitleOffsetX, layout.centerY + subTitleOffsetY, subTitlePaint);
+        Bitmap watch = textLayerWatch;
+        if (watch != null) {
+            canvas.drawBitmap(watch, layout.centerX - watch.getWidth() / 2f,
+                    layout.centerY - watch.getHeight() / 2f + layout.watchOffset, null);
+        }
+    }
+
+
+    private void initProgressCircle(){
+        dottedCirclePaint = new Paint();
+        dottedCirclePaint.setStrokeWidth(layout.dottedCircleStrokeWidth);
+        dottedCirclePaint.setColor(Color.parseColor("#CCFFFFFF"));
+        dottedCirclePaint.setStyle(Paint.Style.STROKE);
+        float gagPx = layout.dottedCircleGap;
+        dottedCirclePaint.setPathEffect(new DashPathEffect(new float[]{gagPx, gagPx}, 0));
+        dottedCirclePaint.setAntiAlias(true);
+
+        solidCirclePaint = new Paint();
+        solidCirclePaint.setStrokeWidth(layout.solidCircleStrokeWidth);
+        solidCirclePaint.setColor(Color.WHITE);
+        solidCirclePaint.setStyle(Paint.Style.STROKE);
+        solidCirclePaint.setStrokeCap(Paint.Cap.ROUND);
+        solidCirclePaint.setAntiAlias(true);
+
+        dotPaint = new Paint();
+        dotPaint.setStrokeWidth(layout.dotStrokeWidth);
+        dotPaint.setStrokeCap(Paint.Cap.ROUND);
+        dotPaint.setColor(Color.WHITE);
+        dotPaint.setAntiAlias(true);
+    }
+
+    private void drawProgressCircle(Canvas canvas){
+        if(!drawProgrees){
+            return;
+        }
+        int progress = sportsData.progress;
+        if (!progressLayer.isValid() || layerProgress != progress) {
+            layerProgress = progress;
+            drawProgressCircle(progressLayer.beginRecording(layout.layerSize, layout.centerX, layout.centerY), progress);
+            progressLayer.endRecording();
+        }
+        progressLayer.draw(canvas, layout.centerX, layout.centerY, 0);
+    }
+
+    private void drawProgressCircle(Canvas canvas, int progress){
+        float dottedCircleRadius = layout.progressRadius;
+
+        canvas.drawCircle(layout.centerX, layout.centerY, dottedCircleRadius, dottedCirclePaint);
+        canvas.drawArc(layout.progressRect, -90, 3.6f * progress, false, solidCirclePaint);
+        // 计算进度点位置
+        float progressDegrees = 3.6f * progress - 90;
+        canvas.drawPoint(layout.centerX + dottedCircleRadius * FastMath.cosDeg(progressDegrees),
+                layout.centerY + dottedCircleRadius * FastMath.sinDeg(progressDegrees),
+                dotPaint);
+    }
+
+
+    private void initBigCircle(){
+        bigCirclePaint = new Paint();
+        bigCirclePaint.setStrokeWidth(layout.bigCircleStrokeWidth);
+        bigCirclePaint.setStyle(Paint.Style.STROKE);
+    }
+
+    private void drawBigCircle(Canvas canvas){
+        float factor = bigCircleRadiusFactor;
+        if (factor != 1) {
+            // 弹出动画中半径每帧变化，直接绘制
+            drawBigCircle(canvas, drawDegree, factor);
+            return;
+        }
+        if (!bigCircleLayer.isValid()) {
+            drawBigCircle(bigCircleLayer.beginRecording(layout.layerSize, layout.centerX, layout.centerY), 0, 1);
+            bigCircleLayer.endRecording();
+        }
+        bigCircleLayer.draw(canvas, layout.centerX, layout.centerY, drawDegree);
+    }
+
+    private void drawBigCircle(Canvas canvas, float degrees, float radiusFactor){
+        float bigCircleRadius = layout.bigCircleRadius*radiusFactor;
+        canvas.save();
+        canvas.rotate(degrees, layout.centerX, layout.centerY);
+
+        // 光晕
+        bigCirclePaint.setShader(blurLinearGradient);
+        for (int i = 0; i < SportsLayout.BLUR_LAYERS; i++) {
+            bigCirclePaint.setAlpha(0xff * (SportsLayout.BLUR_LAYERS - i) / (SportsLayout.BLUR_LAYERS * 3));
+            RectF blurRect = layout.blurRects[i];
+            if (radiusFactor != 1) {
+                // 弹出动画中半径变化，按当前半径计算
+                blurRect = rectF;
+                blurRect.set(layout.centerX - bigCircleRadius, layout.centerY - bigCircleRadius - i * layout.blurStep,
+                        layout.centerX + bigCircleRadius, layout.centerY + bigCircleRadius);
+            }
+            canvas.drawArc(blurRect, 0,360,false,bigCirclePaint);
+        }
+        bigCirclePaint.setShader(bigCircleLinearGradient);
+        bigCirclePaint.setAlpha(0xff);
+        canvas.drawCircle(layout.centerX, layout.centerY, bigCircleRadius, bigCirclePaint);
+        canvas.restore();
+    }
+
+    public float getBigCircleRadiusFactor() {
+        return bigCircleRadiusFactor;
+    }
+
+    public void setBigCircleRadiusFactor(float bigCircleRadiusFactor) {
+        this.bigCircleRadiusFactor = bigCircleRadiusFactor;
+    }
+    private ValueAnimator getObjectAnimator(){
+        if(objectAnimator==null){
+            // 直接读取插值后的进度，不经过反射和装箱
+            objectAnimator = ValueAnimator.ofFloat(0, 1).setDuration(500);
+            objectAnimator.setInterpolator(new OvershootInterpolator(5f));
+            objectAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    bigCircleRadiusFactor = BIG_CIRCLE_START_FACTOR
+                            + (1 - BIG_CIRCLE_START_FACTOR) * animation.getAnimatedFraction();
+                }
+            });
+            objectAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    drawProgrees = true;
+                    bigCircleAnimating = false;
+                }
+            });
+        }
+        drawProgrees = false;
+        bigCircleAnimating = true;
+        return objectAnimator;
+    }
+
+
+    /**
+     * 位图在主线程回调，转到绘制线程后再读取尺寸、替换位图
+     */
+    private abstract class DrawThreadCallback implements BitmapLoader.Callback {
+
+        @Override
+        public final void onBitmapLoaded(final Bitmap bitmap) {
+            if (bitmap == null) {
+                return;
+            }
+            runOnDrawThread(new Runnable() {
+                @Override
+                public void run() {
+                    onBitmapLoadedOnDrawThread(bitmap);
+                }
+            });
+        }
+
+        abstract void onBitmapLoadedOnDrawThread(Bitmap bitmap);
+    }
+
+    public class LineCircle{
+         float degrees;
+         float centerX;
+         float centerY;
+         float radius;
+         /** 线圈的外接矩形（以视图左上角为原点），大小变化时计算 **/
+         final RectF rect = new RectF();
+    }
+
+    private void initLineCircle(){
+        lineCirclePaint.setStyle(Paint.Style.STROKE);
+        lineCirclePaint.setStrokeCap(Paint.Cap.ROUND);
+        lineCirclePaint.setStrokeWidth(layout.lineCircleStrokeWidth);
+    }
+
+
+    private void drawLineCircles(Canvas canvas){
+        if (!lineCircleLayer.isValid()) {
+            drawLineCircles(lineCircleLayer.beginRecording(layout.layerSize, layout.centerX, layout.centerY), 0);
+            lineCircleLayer.endRecording();
+        }
+        lineCircleLayer.draw(canvas, layout.centerX, layout.centerY, drawDegree);
+    }
+
+    private void drawLineCircles(Canvas canvas, float degrees){
+        for (int i = 0; i < LINE_CIRCLE_NUM; i++) {
+            canvas.save();
+            LineCircle circle = mLineCircles[i];
+            canvas.rotate(degrees-circle.degrees ,layout.centerX,layout.centerY);
+            canvas.drawArc(circle.rect,0,360,false,lineCirclePaint);
+            canvas.restore();
+        }
+    }
+
+
+    private void initParticle(){
+        // 粒子图在后台加载，冷启动时从磁盘缓存读取，加载完成后开始发射
+        int dotSize = layout.particleDotSize;
+        Bitmap dot = bitmapLoader.load(resources, R.drawable.dot, dotSize, dotSize, Bitmap.Config.ARGB_8888,
+                new BitmapLoader.Callback() {
+                    @Override
+                    public void onBitmapLoaded(Bitmap bitmap) {
+                        createParticleSystem(bitmap);
+                    }
+                });
+        if (dot != null) {
+            createParticleSystem(dot);
+        }
+    }
+
+    /**
+     * 在主线程创建粒子系统，交给模拟线程开始发射
+     *
+     * @param dot 加载失败时为 null，改用 drawable
+     */
+    private void createParticleSystem(Bitmap dot) {
+        final AndroidParticleSystem system;
+        if (dot != null) {
+            system = new AndroidParticleSystem(100, dot, 800);
+            // 图集已经复制了像素
+            bitmapLoader.release(dot);
+        } else {
+            system = new AndroidParticleSystem(100, resources.getDrawable(R.drawable.dot), 800);
+        }
+        system.setScaleRange(0.7f, 1.3f);
+//        system.setSpeedRange(0.05f, 0.1f);
+        system.setSpeedModuleAndAngleRange(0.07f, 0.16f, -120, -80);
+        system.setRotationSpeedRange(90, 180);
+        system.setFadeOut(200, new AccelerateInterpolator());
+        runOnSimulationThread(new Runnable() {
+            @Override
+            public void run() {
+                setParticleSystem(system);
+            }
+        });
+    }
+
+    /**
+     * 在模拟线程换上粒子系统，从当前的粒子时间和发射区域开始发射
+     */
+    private void setParticleSystem(AndroidParticleSystem system) {
+        system.setStartTime(particleTimeMillis);
+        system.prepareEmitting(50, emitterArea(simulationLayout));
+        particleSystem = system;
+        particleRenderer = new ParticleRenderer(system);
+    }
+
+    private void drawParticle(Canvas canvas){
+        ParticleRenderer particleRenderer = this.particleRenderer;
+        if (particleRenderer == null) {
+            return;
+        }
+        //particle
+        canvas.save();
+        canvas.rotate(drawDegree,layout.centerX,layout.centerY);
+        particleRenderer.draw(canvas);
+        canvas.restore();
+    }
+}
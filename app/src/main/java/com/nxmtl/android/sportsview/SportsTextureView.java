@@ -0,0 +1,247 @@
+package com.nxmtl.android.sportsview;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.TextureView;
+import android.view.View;
+
+import com.nxmtl.android.sportsview.clock.ChoreographerFrameSource;
+import com.nxmtl.android.sportsview.clock.FrameClock;
+import com.nxmtl.android.sportsview.metrics.FrameMetrics;
+
+/**
+ * 在独立渲染线程上模拟并绘制的运动视图，和 {@link SportsView} 共用 {@link SportsRenderer}。
+ * 主线程只负责布局和数据，动画不占用主线程的帧时间。
+ */
+public class SportsTextureView extends TextureView implements TextureView.SurfaceTextureListener {
+
+    private SportsRenderer renderer;
+    private HandlerThread renderThread;
+    private Handler renderHandler;
+    private volatile FrameClock frameClock;
+    /** 保护 surface 的生命周期，渲染线程绘制时不能被销毁 **/
+    private final Object surfaceLock = new Object();
+    private boolean surfaceAvailable;
+    private FrameMetrics metrics;
+    private VisibilityTracker visibilityTracker;
+
+    public SportsTextureView(Context context) {
+        super(context);
+        init();
+    }
+
+    public SportsTextureView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    void init(){
+        BitmapLoader.getInstance().enableDiskCache(getContext());
+        renderer = new SportsRenderer(getResources());
+        setOpaque(false);
+        setSurfaceTextureListener(this);
+        visibilityTracker = new VisibilityTracker(this, new VisibilityTracker.Listener() {
+            @Override
+            public void onVisibilityChanged(boolean visible) {
+                // 不可见时暂停模拟和绘制
+                if (frameClock == null) {
+                    return;
+                }
+                if (visible) {
+                    frameClock.start(SportsView.RESUME_CATCH_UP);
+                } else {
+                    frameClock.stop();
+                }
+            }
+        });
+    }
+
+    public void setSportsData(SportsData sportsData){
+        renderer.setSportsData(sportsData);
+    }
+
+    /**
+     * 高频数据入口，可在任意线程调用，不分配对象。多次调用只保留最新的数据，
+     * 在下一帧显示
+     */
+    public void postSportsData(int step, float distance, int calories, int progress) {
+        renderer.postSportsData(step, distance, calories, progress);
+    }
+
+    /**
+     * 开启后步数和进度以动画趋近最新数据
+     */
+    public void setAnimateSportsData(boolean animate) {
+        renderer.setAnimateSportsData(animate);
+    }
+
+    public void setIsLoading(boolean isLoading){
+        renderer.setIsLoading(isLoading);
+        if (frameClock != null) {
+            frameClock.setFrameInterval(renderer.getFrameInterval());
+        }
+    }
+
+    /**
+     * 开启性能统计，传 null 关闭，关闭时没有任何开销
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.setFrameClock(frameClock);
+        }
+        renderer.setMetrics(metrics);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(resolveSize(SportsView.DEFAULT_WIDTH, widthMeasureSpec),
+                resolveSize(SportsView.DEFAULT_HEIGHT, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        visibilityTracker.attach();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        visibilityTracker.detach();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        if (visibilityTracker != null) {
+            visibilityTracker.update();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        visibilityTracker.update();
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, final int width, final int height) {
+        synchronized (surfaceLock) {
+            surfaceAvailable = true;
+        }
+        renderThread = new HandlerThread("SportsView-render", Process.THREAD_PRIORITY_DISPLAY);
+        renderThread.start();
+        renderHandler = new Handler(renderThread.getLooper());
+        // 模拟和绘制都在渲染线程
+        renderer.setSimulationHandler(renderHandler);
+        renderer.setDrawHandler(renderHandler);
+        // 模拟和绘制都在渲染线程，尺寸也只在渲染线程修改，排在第一帧之前
+        renderHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                renderer.setSize(width, height);
+            }
+        });
+        frameClock = new FrameClock(new ChoreographerFrameSource(renderThread.getLooper()),
+                SportsView.SIMULATION_STEP, SportsView.MAX_STEPS_PER_FRAME, frameCallback);
+        if (metrics != null) {
+            metrics.setFrameClock(frameClock);
+        }
+        frameClock.setFrameInterval(renderer.getFrameInterval());
+        if (visibilityTracker.isVisible()) {
+            frameClock.start();
+        }
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, final int width, final int height) {
+        renderHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                renderer.setSize(width, height);
+            }
+        });
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        Handler handler = renderHandler;
+        if (handler == null || frameClock == null) {
+            renderer.onConfigurationChanged();
+            return;
+        }
+        // 尺寸和画笔只在渲染线程修改
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                renderer.onConfigurationChanged();
+            }
+        });
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        frameClock.stop();
+        frameClock = null;
+        renderer.setSimulationHandler(null);
+        renderer.setDrawHandler(null);
+        renderThread.quitSafely();
+        synchronized (surfaceLock) {
+            surfaceAvailable = false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+    }
+
+    private final FrameClock.Callback frameCallback = new FrameClock.Callback() {
+        /** 只在渲染线程使用 **/
+        private final Rect dirtyRect = new Rect();
+
+        @Override
+        public void onStep(long timeMillis, long stepMillis) {
+            renderer.step(timeMillis, stepMillis);
+        }
+
+        @Override
+        public void onFrame(float interpolation) {
+            FrameClock clock = frameClock;
+            if (clock != null) {
+                clock.setFrameInterval(renderer.getFrameInterval());
+            }
+            renderer.setFrameInterpolation(interpolation);
+            synchronized (surfaceLock) {
+                if (!surfaceAvailable) {
+                    return;
+                }
+                if (!renderer.getDirtyRect(dirtyRect)) {
+                    return;
+                }
+                // 只重绘变化的区域，区域外保留上一帧的内容
+                Canvas canvas = lockCanvas(dirtyRect);
+                if (canvas == null) {
+                    return;
+                }
+                try {
+                    canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                    renderer.draw(canvas);
+                } finally {
+                    unlockCanvasAndPost(canvas);
+                }
+            }
+        }
+    };
+}
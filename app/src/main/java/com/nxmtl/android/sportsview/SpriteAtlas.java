@@ -0,0 +1,113 @@
+package com.nxmtl.android.sportsview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.AnimationDrawable;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs the images of a particle system, every frame of every drawable, into a single bitmap so
+ * all the particles can be drawn with one shader. Frames are laid out in rows with a transparent
+ * gutter between them so filtering does not bleed into the neighbours.
+ */
+public class SpriteAtlas {
+
+	private static final int MAX_ROW_WIDTH = 2048;
+	private static final int GUTTER = 1;
+
+	private final Bitmap mBitmap;
+	private final SpriteSheet mSheet;
+
+	private SpriteAtlas(Bitmap bitmap, SpriteSheet sheet) {
+		mBitmap = bitmap;
+		mSheet = sheet;
+	}
+
+	public Bitmap getBitmap() {
+		return mBitmap;
+	}
+
+	public SpriteSheet getSheet() {
+		return mSheet;
+	}
+
+	/**
+	 * Packs the given drawables, an {@link AnimationDrawable} becomes an animated sprite
+	 */
+	public static SpriteAtlas pack(Drawable... drawables) {
+		List<Drawable> frames = new ArrayList<>();
+		int[] firstFrame = new int[drawables.length];
+		FrameTable[] frameTables = new FrameTable[drawables.length];
+		for (int i=0; i<drawables.length; i++) {
+			firstFrame[i] = frames.size();
+			if (drawables[i] instanceof AnimationDrawable) {
+				AnimationDrawable animation = (AnimationDrawable) drawables[i];
+				int[] durations = new int[animation.getNumberOfFrames()];
+				for (int j=0; j<durations.length; j++) {
+					durations[j] = animation.getDuration(j);
+					frames.add(animation.getFrame(j));
+				}
+				frameTables[i] = new FrameTable(durations, animation.isOneShot());
+			} else {
+				frames.add(drawables[i]);
+			}
+		}
+
+		int count = frames.size();
+		int[] left = new int[count];
+		int[] top = new int[count];
+		int[] width = new int[count];
+		int[] height = new int[count];
+		int x = 0;
+		int y = 0;
+		int rowHeight = 0;
+		int atlasWidth = 0;
+		for (int i=0; i<count; i++) {
+			Drawable frame = frames.get(i);
+			width[i] = getWidth(frame);
+			height[i] = getHeight(frame);
+			if (x > 0 && x + width[i] > MAX_ROW_WIDTH) {
+				x = 0;
+				y += rowHeight + GUTTER;
+				rowHeight = 0;
+			}
+			left[i] = x;
+			top[i] = y;
+			x += width[i] + GUTTER;
+			rowHeight = Math.max(rowHeight, height[i]);
+			atlasWidth = Math.max(atlasWidth, left[i] + width[i]);
+		}
+		int atlasHeight = y + rowHeight;
+
+		Bitmap bitmap = Bitmap.createBitmap(atlasWidth, atlasHeight, Bitmap.Config.ARGB_8888);
+		Canvas canvas = new Canvas(bitmap);
+		for (int i=0; i<count; i++) {
+			Drawable frame = frames.get(i);
+			if (frame instanceof BitmapDrawable) {
+				canvas.drawBitmap(((BitmapDrawable) frame).getBitmap(), left[i], top[i], null);
+			} else {
+				frame.setBounds(left[i], top[i], left[i] + width[i], top[i] + height[i]);
+				frame.draw(canvas);
+			}
+		}
+		return new SpriteAtlas(bitmap, new SpriteSheet(left, top, width, height, firstFrame, frameTables));
+	}
+
+	private static int getWidth(Drawable drawable) {
+		if (drawable instanceof BitmapDrawable) {
+			return ((BitmapDrawable) drawable).getBitmap().getWidth();
+		}
+		return drawable.getIntrinsicWidth();
+	}
+
+	private static int getHeight(Drawable drawable) {
+		if (drawable instanceof BitmapDrawable) {
+			return ((BitmapDrawable) drawable).getBitmap().getHeight();
+		}
+		return drawable.getIntrinsicHeight();
+	}
+}
@@ -0,0 +1,166 @@
+package com.nxmtl.android.sportsview;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * 预先解析的格式串，把数字直接写进复用的 char 数组，格式化时不产生临时对象。
+ * 只支持 %d、%.nf 和 %%，小数按四舍五入，小数点和 String.format 一样按地区
+ */
+class TextTemplate {
+
+    private static final int MAX_DECIMALS = 6;
+    private static final long[] POW10 = {1, 10, 100, 1000, 10000, 100000, 1000000};
+
+    /** 参数之间的文字，比参数多一段 **/
+    private final char[][] literals;
+    /** 每个参数的小数位数，-1 表示 %d **/
+    private final int[] decimals;
+    private final double[] values;
+    /** 地区的小数点，创建时读取 **/
+    private final char decimalSeparator;
+
+    /** 格式化的结果，前 length 个字符有效 **/
+    final char[] chars;
+    int length;
+
+    TextTemplate(String format) {
+        this(format, Locale.getDefault());
+    }
+
+    TextTemplate(String format, Locale locale) {
+        decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        int count = 0;
+        for (int i = 0; i < format.length(); i++) {
+            if (format.charAt(i) == '%' && i + 1 < format.length()) {
+                if (format.charAt(i + 1) != '%') {
+                    count++;
+                }
+                i++;
+            }
+        }
+        literals = new char[count + 1][];
+        decimals = new int[count];
+        values = new double[count];
+        StringBuilder literal = new StringBuilder();
+        int argument = 0;
+        int literalChars = 0;
+        int i = 0;
+        while (i < format.length()) {
+            char c = format.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i >= format.length()) {
+                throw new IllegalArgumentException("Dangling % in " + format);
+            }
+            char next = format.charAt(i++);
+            if (next == '%') {
+                literal.append('%');
+                continue;
+            }
+            if (next == 'd') {
+                decimals[argument] = -1;
+            } else if (next == '.' && i + 1 < format.length() && format.charAt(i + 1) == 'f'
+                    && Character.isDigit(format.charAt(i))
+                    && format.charAt(i) - '0' <= MAX_DECIMALS) {
+                decimals[argument] = format.charAt(i) - '0';
+                i += 2;
+            } else {
+                throw new IllegalArgumentException("Unsupported format " + format);
+            }
+            literals[argument++] = toChars(literal);
+            literalChars += literal.length();
+            literal.setLength(0);
+        }
+        literals[count] = toChars(literal);
+        literalChars += literal.length();
+        // 每个数字最多 20 位加符号和小数点
+        chars = new char[literalChars + count * (22 + MAX_DECIMALS)];
+    }
+
+    private static char[] toChars(StringBuilder builder) {
+        char[] chars = new char[builder.length()];
+        builder.getChars(0, chars.length, chars, 0);
+        return chars;
+    }
+
+    void setValue(int index, double value) {
+        values[index] = value;
+    }
+
+    /**
+     * 按当前的参数重新生成 {@link #chars}
+     */
+    void format() {
+        int position = 0;
+        for (int i = 0; i < values.length; i++) {
+            position = appendLiteral(literals[i], position);
+            if (decimals[i] < 0) {
+                position = appendLong(chars, position, (long) values[i]);
+            } else {
+                position = appendFixed(chars, position, values[i], decimals[i], decimalSeparator);
+            }
+        }
+        length = appendLiteral(literals[values.length], position);
+    }
+
+    /**
+     * @return text 在结果中第一次出现的位置，没有时返回 -1
+     */
+    int indexOf(String text) {
+        int last = length - text.length();
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < text.length(); j++) {
+                if (chars[i + j] != text.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private int appendLiteral(char[] literal, int position) {
+        System.arraycopy(literal, 0, chars, position, literal.length);
+        return position + literal.length;
+    }
+
+    private static int appendFixed(char[] out, int position, double value, int decimals, char separator) {
+        long scaled = Math.round(Math.abs(value) * POW10[decimals]);
+        if (value < 0) {
+            out[position++] = '-';
+        }
+        position = appendLong(out, position, scaled / POW10[decimals]);
+        if (decimals > 0) {
+            out[position++] = separator;
+            long fraction = scaled % POW10[decimals];
+            for (int i = decimals - 1; i >= 0; i--) {
+                out[position + i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            position += decimals;
+        }
+        return position;
+    }
+
+    private static int appendLong(char[] out, int position, long value) {
+        if (value < 0) {
+            out[position++] = '-';
+        } else {
+            value = -value;
+        }
+        // 按负数计算，Long.MIN_VALUE 也不会溢出
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (char) ('0' - value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+}
@@ -12,7 +12,7 @@ public class Utils {
         options.inJustDecodeBounds = true;
         BitmapFactory.decodeResource(resources, id, options);
         options.inJustDecodeBounds = false;
-        if(width/height > options.outWidth/options.outHeight){
+        if((float) width/height > (float) options.outWidth/options.outHeight){
             options.inDensity = options.outWidth;
             options.inTargetDensity = width;
         }else {
@@ -0,0 +1,81 @@
+package com.nxmtl.android.sportsview;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * 跟踪视图是否在屏幕上可见：窗口可见、自身及父视图可见，且没有被滚动到屏幕外。
+ * 可见性变化时回调 {@link Listener}，只在主线程使用
+ */
+class VisibilityTracker implements ViewTreeObserver.OnScrollChangedListener,
+        ViewTreeObserver.OnGlobalLayoutListener {
+
+    interface Listener {
+        void onVisibilityChanged(boolean visible);
+    }
+
+    private final View view;
+    private final Listener listener;
+    private final Rect visibleRect = new Rect();
+    private ViewTreeObserver observer;
+    private boolean visible;
+
+    VisibilityTracker(View view, Listener listener) {
+        this.view = view;
+        this.listener = listener;
+    }
+
+    /**
+     * 在 onAttachedToWindow 中调用
+     */
+    void attach() {
+        observer = view.getViewTreeObserver();
+        observer.addOnScrollChangedListener(this);
+        observer.addOnGlobalLayoutListener(this);
+        update();
+    }
+
+    /**
+     * 在 onDetachedFromWindow 中调用，之后视为不可见
+     */
+    void detach() {
+        if (observer != null && observer.isAlive()) {
+            observer.removeOnScrollChangedListener(this);
+            observer.removeOnGlobalLayoutListener(this);
+        }
+        observer = null;
+        setVisible(false);
+    }
+
+    /**
+     * 重新计算可见性，在 onVisibilityChanged、onWindowVisibilityChanged 中调用
+     */
+    void update() {
+        setVisible(observer != null
+                && view.getWindowVisibility() == View.VISIBLE
+                && view.isShown()
+                && view.getLocalVisibleRect(visibleRect));
+    }
+
+    boolean isVisible() {
+        return visible;
+    }
+
+    private void setVisible(boolean visible) {
+        if (this.visible != visible) {
+            this.visible = visible;
+            listener.onVisibilityChanged(visible);
+        }
+    }
+
+    @Override
+    public void onScrollChanged() {
+        update();
+    }
+
+    @Override
+    public void onGlobalLayout() {
+        update();
+    }
+}
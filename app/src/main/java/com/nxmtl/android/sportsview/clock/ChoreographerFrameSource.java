@@ -0,0 +1,99 @@
+package com.nxmtl.android.sportsview.clock;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * {@link FrameSource} fed by the vsync signal of a {@link Choreographer}. The choreographer is
+ * the one of the given looper, so the clock (and the simulation it drives) runs on that thread.
+ */
+public class ChoreographerFrameSource implements FrameSource {
+
+	private final Handler mHandler;
+	// Only touched on the looper thread
+	private Choreographer mChoreographer;
+	private FrameClock mClock;
+
+	private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			FrameClock clock = mClock;
+			mClock = null;
+			if (clock != null) {
+				clock.doFrame(frameTimeNanos);
+			}
+		}
+	};
+
+	/** Clock of the last post made from another thread, picked up by {@link #mPostOnLooper} */
+	private volatile FrameClock mRequestedClock;
+
+	// Preallocated, posting from another thread only happens on start and stop, but the frames
+	// themselves are posted from the looper thread and must not allocate
+	private final Runnable mPostOnLooper = new Runnable() {
+		@Override
+		public void run() {
+			FrameClock clock = mRequestedClock;
+			if (clock != null) {
+				post(clock);
+			}
+		}
+	};
+
+	private final Runnable mRemoveOnLooper = new Runnable() {
+		@Override
+		public void run() {
+			remove();
+		}
+	};
+
+	public ChoreographerFrameSource(Looper looper) {
+		mHandler = new Handler(looper);
+	}
+
+	@Override
+	public void postFrameCallback(FrameClock clock) {
+		if (isOnLooper()) {
+			post(clock);
+		} else {
+			mRequestedClock = clock;
+			mHandler.post(mPostOnLooper);
+		}
+	}
+
+	@Override
+	public void removeFrameCallback(FrameClock clock) {
+		if (isOnLooper()) {
+			remove();
+		} else {
+			mRequestedClock = null;
+			mHandler.removeCallbacks(mPostOnLooper);
+			mHandler.post(mRemoveOnLooper);
+		}
+	}
+
+	private void post(FrameClock clock) {
+		if (mClock == null) {
+			mClock = clock;
+			getChoreographer().postFrameCallback(mFrameCallback);
+		}
+	}
+
+	private void remove() {
+		mClock = null;
+		getChoreographer().removeFrameCallback(mFrameCallback);
+	}
+
+	private Choreographer getChoreographer() {
+		if (mChoreographer == null) {
+			// Choreographer.getInstance() is bound to the looper of the calling thread
+			mChoreographer = Choreographer.getInstance();
+		}
+		return mChoreographer;
+	}
+
+	private boolean isOnLooper() {
+		return Looper.myLooper() == mHandler.getLooper();
+	}
+}
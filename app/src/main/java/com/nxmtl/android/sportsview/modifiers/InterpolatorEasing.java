@@ -0,0 +1,22 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import android.view.animation.Interpolator;
+
+/**
+ * Uses an Android {@link Interpolator} as the {@link Easing} of a modifier, e.g.
+ * {@code CurveTrack.bake(new InterpolatorEasing(new AccelerateInterpolator()))}
+ */
+public class InterpolatorEasing implements Easing {
+
+	private final Interpolator mInterpolator;
+
+	public InterpolatorEasing(Interpolator interpolator) {
+		mInterpolator = interpolator;
+	}
+
+	@Override
+	public float getInterpolation(float input) {
+		return mInterpolator.getInterpolation(input);
+	}
+
+}
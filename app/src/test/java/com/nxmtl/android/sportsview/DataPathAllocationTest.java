@@ -0,0 +1,50 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * 数据从写入到格式化成文字的整条路径，预热后不能分配对象
+ */
+public class DataPathAllocationTest {
+
+    private static final int WARM_UP = 20000;
+    private static final int MEASURED = 20000;
+
+    private AllocationMeter meter;
+
+    @Before
+    public void setUp() {
+        meter = AllocationMeter.create();
+        assumeNotNull(meter);
+    }
+
+    @Test
+    public void postPollAndFormatDoNotAllocate() {
+        SportsDataFeed feed = new SportsDataFeed();
+        SportsData data = new SportsData();
+        TextTemplate main = new TextTemplate("%d");
+        TextTemplate sub = new TextTemplate("%.2f公里 | %d千卡");
+        run(feed, data, main, sub, 0, WARM_UP);
+        long start = meter.start();
+        run(feed, data, main, sub, WARM_UP, MEASURED);
+        long allocated = meter.since(start);
+        assertEquals("Allocated " + allocated + " bytes", 0, allocated);
+    }
+
+    private static void run(SportsDataFeed feed, SportsData data, TextTemplate main, TextTemplate sub,
+                            int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            feed.post(i, i * 0.7f, i / 10, i % 100);
+            feed.poll(data);
+            main.setValue(0, data.step);
+            main.format();
+            sub.setValue(0, data.distance / 1000);
+            sub.setValue(1, data.calories);
+            sub.format();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SportsDataFeedTest {
+
+    @Test
+    public void latestPostWins() {
+        SportsDataFeed feed = new SportsDataFeed();
+        assertTrue(feed.post(10, 5f, 1, 2));
+        assertTrue(feed.post(20, 6f, 2, 3));
+        SportsData out = new SportsData();
+        assertTrue(feed.poll(out));
+        assertEquals(20, out.step);
+        assertEquals(6f, out.distance, 0f);
+        assertEquals(2, out.calories);
+        assertEquals(3, out.progress);
+        assertFalse(feed.poll(out));
+    }
+
+    @Test
+    public void unchangedPostIsIgnored() {
+        SportsDataFeed feed = new SportsDataFeed();
+        assertFalse(feed.post(0, 0f, 0, 0));
+        assertFalse(feed.hasPending());
+        assertTrue(feed.post(1, 0f, 0, 0));
+        assertFalse(feed.post(1, 0f, 0, 0));
+        assertTrue(feed.hasPending());
+    }
+}
@@ -0,0 +1,53 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class TextTemplateTest {
+
+    private static String text(TextTemplate template) {
+        return new String(template.chars, 0, template.length);
+    }
+
+    @Test
+    public void formatsIntegersAndFixedPoint() {
+        TextTemplate template = new TextTemplate("%.1f 公里 | %d 千卡", Locale.US);
+        template.setValue(0, 3.25);
+        template.setValue(1, 120);
+        template.format();
+        assertEquals("3.3 公里 | 120 千卡", text(template));
+        assertEquals(7, template.indexOf("|"));
+    }
+
+    @Test
+    public void matchesStringFormat() {
+        TextTemplate template = new TextTemplate("%d%% %.2f", Locale.US);
+        long[] ints = {0, 7, -42, 123456789, Long.MIN_VALUE};
+        double[] doubles = {0, 0.004, -0.004, 1.5, -2.345678, 98765.4321};
+        for (long i : ints) {
+            for (double d : doubles) {
+                template.setValue(0, i);
+                template.setValue(1, d);
+                template.format();
+                assertEquals(String.format(Locale.US, "%d%% %.2f", i, d), text(template));
+            }
+        }
+    }
+
+    @Test
+    public void usesTheDecimalSeparatorOfTheLocale() {
+        TextTemplate template = new TextTemplate("%.2f km", Locale.GERMANY);
+        template.setValue(0, -1.5);
+        template.format();
+        assertEquals(String.format(Locale.GERMANY, "%.2f km", -1.5), text(template));
+        assertEquals("-1,50 km", text(template));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedFormats() {
+        new TextTemplate("%s");
+    }
+}
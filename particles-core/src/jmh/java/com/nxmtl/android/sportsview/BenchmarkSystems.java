@@ -0,0 +1,81 @@
+package com.nxmtl.android.sportsview;
+
+import com.nxmtl.android.sportsview.modifiers.AccelerationModifier;
+import com.nxmtl.android.sportsview.modifiers.CurveTrack;
+import com.nxmtl.android.sportsview.modifiers.Easing;
+import com.nxmtl.android.sportsview.modifiers.ScaleModifier;
+
+/**
+ * Particle systems configured like the ones of the view, shared by the benchmarks
+ */
+final class BenchmarkSystems {
+
+	static final long STEP = 16;
+	static final int[] EMITTER = {0, 400, 300, 300};
+
+	/** No modifier, only the motion */
+	static final String MODIFIERS_NONE = "none";
+	static final String MODIFIERS_FADE = "fade";
+	static final String MODIFIERS_FADE_SCALE_ACCELERATION = "fade_scale_acceleration";
+
+	static final String SPRITES_STATIC = "static";
+	static final String SPRITES_ANIMATED = "animated";
+
+	private static final Easing ACCELERATE = new Easing() {
+		@Override
+		public float getInterpolation(float input) {
+			return input * input;
+		}
+	};
+
+	private BenchmarkSystems() {
+	}
+
+	/**
+	 * One 16x16 sprite, or a looping animation of four 16x16 frames
+	 */
+	static SpriteSheet sprites(String sprites) {
+		if (SPRITES_ANIMATED.equals(sprites)) {
+			return new SpriteSheet(new int[]{0, 17, 34, 51}, new int[]{0, 0, 0, 0},
+					new int[]{16, 16, 16, 16}, new int[]{16, 16, 16, 16},
+					new int[]{0}, new FrameTable[]{new FrameTable(new int[]{50, 50, 50, 50}, false)});
+		}
+		return new SpriteSheet(new int[]{0}, new int[]{0}, new int[]{16}, new int[]{16},
+				new int[]{0}, new FrameTable[]{null});
+	}
+
+	/**
+	 * Creates a system emitting just enough for the given number of particles to be alive at
+	 * the same time
+	 */
+	static ParticleSystem create(int particles, long timeToLive, String sprites, String modifiers) {
+		ParticleSystem system = new ParticleSystem(particles, sprites(sprites), timeToLive);
+		system.setRandomSeed(42);
+		system.setScaleRange(0.7f, 1.3f);
+		system.setSpeedModuleAndAngleRange(0.07f, 0.16f, -120, -80);
+		system.setRotationSpeedRange(90, 180);
+		if (MODIFIERS_FADE.equals(modifiers) || MODIFIERS_FADE_SCALE_ACCELERATION.equals(modifiers)) {
+			system.setFadeOut(timeToLive / 4, ACCELERATE);
+		}
+		if (MODIFIERS_FADE_SCALE_ACCELERATION.equals(modifiers)) {
+			system.addModifier(new ScaleModifier(1f, 0.5f, 0, timeToLive, CurveTrack.bake(ACCELERATE)));
+			system.addModifier(new AccelerationModifier(0.0001f, 90));
+		}
+		system.prepareEmitting((int) (particles * 1000L / timeToLive), EMITTER);
+		return system;
+	}
+
+	/**
+	 * Runs the system for a whole time to live, so the number of live particles is steady
+	 *
+	 * @return the time of the last update
+	 */
+	static long warmUp(ParticleSystem system, long timeToLive) {
+		long time = 0;
+		while (time < 2 * timeToLive) {
+			time += STEP;
+			system.onUpdate(time);
+		}
+		return time;
+	}
+}
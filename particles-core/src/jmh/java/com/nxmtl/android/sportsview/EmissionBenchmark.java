@@ -0,0 +1,57 @@
+package com.nxmtl.android.sportsview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps of a system whose particles live only a few steps, so the cost is dominated by emitting
+ * and initializing the particles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmissionBenchmark {
+
+	private static final long TIME_TO_LIVE = 3 * BenchmarkSystems.STEP;
+
+	/** Particles emitted per second */
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int rate;
+
+	@Param({BenchmarkSystems.SPRITES_STATIC, BenchmarkSystems.SPRITES_ANIMATED})
+	public String sprites;
+
+	private ParticleSystem mSystem;
+	private long mTime;
+	private long mEmittedPerStep;
+
+	@Setup(Level.Iteration)
+	public void createSystem() {
+		int capacity = (int) (rate * TIME_TO_LIVE / 1000);
+		mSystem = BenchmarkSystems.create(capacity, TIME_TO_LIVE, sprites, BenchmarkSystems.MODIFIERS_FADE);
+		mTime = BenchmarkSystems.warmUp(mSystem, TIME_TO_LIVE);
+		mEmittedPerStep = rate * BenchmarkSystems.STEP / 1000;
+	}
+
+	@Benchmark
+	public void emit(ParticleCounter counter) {
+		mTime += BenchmarkSystems.STEP;
+		mSystem.onUpdate(mTime);
+		counter.particles += mEmittedPerStep;
+	}
+}
@@ -0,0 +1,52 @@
+package com.nxmtl.android.sportsview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done for drawing a frame besides the Canvas call: publishing the interpolated frame and
+ * building the mesh handed to drawVertices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshBenchmark {
+
+	private static final long TIME_TO_LIVE = 1000;
+
+	@Param({"100", "1000", "10000", "100000"})
+	public int particles;
+
+	private ParticleSystem mSystem;
+	private ParticleMesh mMesh;
+
+	@Setup
+	public void createSystem() {
+		mSystem = BenchmarkSystems.create(particles, TIME_TO_LIVE, BenchmarkSystems.SPRITES_STATIC,
+				BenchmarkSystems.MODIFIERS_FADE);
+		BenchmarkSystems.warmUp(mSystem, TIME_TO_LIVE);
+		mMesh = new ParticleMesh(mSystem.getSpriteSheet(), particles);
+	}
+
+	@Benchmark
+	public int buildMesh(ParticleCounter counter) {
+		mSystem.publishFrame(0.5f);
+		int count = mMesh.fill(mSystem.acquireFrame());
+		counter.particles += count;
+		return count;
+	}
+}
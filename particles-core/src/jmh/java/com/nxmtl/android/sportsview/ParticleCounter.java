@@ -0,0 +1,23 @@
+package com.nxmtl.android.sportsview;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the particles processed by a benchmark. JMH reports it as a secondary throughput,
+ * particles per second, so the cost of a particle is 10^9 / that figure in ns.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ParticleCounter {
+
+	public long particles;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		particles = 0;
+	}
+}
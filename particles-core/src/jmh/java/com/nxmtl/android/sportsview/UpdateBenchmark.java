@@ -0,0 +1,78 @@
+package com.nxmtl.android.sportsview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation step of a system at steady state: emission of the particles replacing the
+ * ones that are over, motion, modifiers and sprite animation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateBenchmark {
+
+	private static final long TIME_TO_LIVE = 1000;
+
+	@Param({"100", "1000", "10000", "100000"})
+	public int particles;
+
+	@Param({BenchmarkSystems.MODIFIERS_NONE, BenchmarkSystems.MODIFIERS_FADE,
+			BenchmarkSystems.MODIFIERS_FADE_SCALE_ACCELERATION})
+	public String modifiers;
+
+	@Param({BenchmarkSystems.SPRITES_STATIC, BenchmarkSystems.SPRITES_ANIMATED})
+	public String sprites;
+
+	@Param({"serial", "parallel"})
+	public String update;
+
+	private ParallelUpdater mUpdater;
+	private ParticleSystem mSystem;
+	private long mTime;
+
+	@Setup(Level.Trial)
+	public void createUpdater() {
+		if ("parallel".equals(update)) {
+			mUpdater = ParallelUpdater.forAvailableProcessors();
+		}
+	}
+
+	// A new system per iteration keeps the simulated time, and the emission count, bounded
+	@Setup(Level.Iteration)
+	public void createSystem() {
+		mSystem = BenchmarkSystems.create(particles, TIME_TO_LIVE, sprites, modifiers);
+		mSystem.setParallelUpdater(mUpdater);
+		mTime = BenchmarkSystems.warmUp(mSystem, TIME_TO_LIVE);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdownUpdater() {
+		if (mUpdater != null) {
+			mUpdater.shutdown();
+		}
+	}
+
+	@Benchmark
+	public void update(ParticleCounter counter) {
+		mTime += BenchmarkSystems.STEP;
+		mSystem.onUpdate(mTime);
+		counter.particles += mSystem.getParticles().mSize;
+	}
+}
@@ -0,0 +1,56 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * Sine and cosine of angles in degrees read from a table with one entry per degree, so emitting
+ * and drawing particles do not call {@link Math#sin} and {@link Math#cos}. Whole degrees are exact
+ * to float precision, other angles are interpolated linearly between the two closest degrees,
+ * which is off by less than 4e-5.
+ */
+public final class FastMath {
+
+	private static final int DEGREES = 360;
+	private static final int QUARTER = 90;
+
+	/**
+	 * sin(0°) to sin(450°): the cosine is the sine 90° later, and the last entry is there for the
+	 * interpolation of angles just below 360°
+	 */
+	private static final float[] SIN = new float[DEGREES + QUARTER + 1];
+
+	static {
+		for (int i=0; i<SIN.length; i++) {
+			SIN[i] = (float) Math.sin(Math.toRadians(i));
+		}
+	}
+
+	private FastMath() {
+	}
+
+	public static float sinDeg(int degrees) {
+		return SIN[wrap(degrees)];
+	}
+
+	public static float cosDeg(int degrees) {
+		return SIN[wrap(degrees) + QUARTER];
+	}
+
+	public static float sinDeg(float degrees) {
+		return interpolate(degrees, 0);
+	}
+
+	public static float cosDeg(float degrees) {
+		return interpolate(degrees, QUARTER);
+	}
+
+	private static int wrap(int degrees) {
+		degrees %= DEGREES;
+		return degrees < 0 ? degrees + DEGREES : degrees;
+	}
+
+	private static float interpolate(float degrees, int offset) {
+		float floor = (float) Math.floor(degrees);
+		float fraction = degrees - floor;
+		int index = wrap((int) floor) + offset;
+		return SIN[index] + (SIN[index + 1] - SIN[index]) * fraction;
+	}
+}
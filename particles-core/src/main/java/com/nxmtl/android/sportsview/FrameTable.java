@@ -0,0 +1,69 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * Frame durations of an animation baked into a prefix sum table, so the frame shown at a given
+ * time is a binary search instead of a walk over all the frames. When all the frames last the
+ * same the lookup is a single division.
+ */
+public class FrameTable {
+
+	// mFrameEnds[i] is the time at which frame i stops being shown
+	private final long[] mFrameEnds;
+	private final long mTotalTime;
+	private final long mUniformDuration;
+	private final boolean mOneShot;
+
+	public FrameTable(int[] durations, boolean oneShot) {
+		mFrameEnds = new long[durations.length];
+		long total = 0;
+		boolean uniform = true;
+		for (int i=0; i<durations.length; i++) {
+			total += durations[i];
+			mFrameEnds[i] = total;
+			uniform &= durations[i] == durations[0];
+		}
+		mTotalTime = total;
+		mUniformDuration = uniform && durations.length > 0 ? durations[0] : 0;
+		mOneShot = oneShot;
+	}
+
+	public int getFrameCount() {
+		return mFrameEnds.length;
+	}
+
+	public long getTotalTime() {
+		return mTotalTime;
+	}
+
+	/**
+	 * @param miliseconds the time since the animation started
+	 * @return the index of the frame to show, -1 if the animation is one shot and it is over
+	 */
+	public int frameAt(long miliseconds) {
+		int last = mFrameEnds.length - 1;
+		if (mTotalTime <= 0) {
+			return 0;
+		}
+		if (miliseconds > mTotalTime) {
+			if (mOneShot) {
+				return -1;
+			}
+			miliseconds = miliseconds % mTotalTime;
+		}
+		if (mUniformDuration > 0) {
+			return (int) Math.min(miliseconds / mUniformDuration, last);
+		}
+		// First frame ending after the given time
+		int low = 0;
+		int high = last;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (mFrameEnds[middle] > miliseconds) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,181 @@
+package com.nxmtl.android.sportsview;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small fixed pool of worker threads that splits a range of particles in chunks and runs them in
+ * parallel. The calling thread works on the chunks too and {@link #run} returns once all of them
+ * are done, so the caller sees every write made by the workers.
+ * <p>
+ * Chunks are claimed from a shared counter, a worker that finishes early simply takes the next
+ * one. The chunk size adapts to the number of particles so that each thread gets a few chunks,
+ * without going below {@link #MIN_CHUNK_SIZE}. Ranges smaller than the serial threshold are run
+ * on the calling thread only.
+ * <p>
+ * An updater can be shared by several particle systems as long as they are updated from the
+ * same thread. It has to be {@link #shutdown()} by its owner.
+ */
+public class ParallelUpdater {
+
+	/**
+	 * Work over a range of particles. It is called from several threads at once, on disjoint
+	 * ranges.
+	 */
+	public interface RangeTask {
+		void run(int from, int to);
+	}
+
+	public static final int DEFAULT_SERIAL_THRESHOLD = 1024;
+	static final int MIN_CHUNK_SIZE = 256;
+	// Chunks per thread, more chunks balance better when some threads get descheduled
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final int mThreads;
+	private final int mSerialThreshold;
+	private final ExecutorService mExecutor;
+	private final Runnable mHelper = new Runnable() {
+		@Override
+		public void run() {
+			try {
+				runChunks();
+			} finally {
+				synchronized (mLock) {
+					mRunningHelpers--;
+					mLock.notifyAll();
+				}
+			}
+		}
+	};
+
+	// State of the current run, written by the caller before the helpers are submitted
+	private RangeTask mTask;
+	private int mSize;
+	private int mChunkSize;
+	private int mChunkCount;
+	private final AtomicInteger mNextChunk = new AtomicInteger();
+	private volatile RuntimeException mFailure;
+
+	private final Object mLock = new Object();
+	private int mRunningHelpers;
+
+	public ParallelUpdater(int threads) {
+		this(threads, DEFAULT_SERIAL_THRESHOLD);
+	}
+
+	/**
+	 * @param threads number of threads working on a run, the calling thread included
+	 * @param serialThreshold ranges smaller than this are run on the calling thread only
+	 */
+	public ParallelUpdater(int threads, int serialThreshold) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1");
+		}
+		mThreads = threads;
+		mSerialThreshold = serialThreshold;
+		mExecutor = threads > 1 ? Executors.newFixedThreadPool(threads - 1, new WorkerFactory()) : null;
+	}
+
+	/**
+	 * @return an updater with one thread per available core
+	 */
+	public static ParallelUpdater forAvailableProcessors() {
+		return new ParallelUpdater(Runtime.getRuntime().availableProcessors());
+	}
+
+	public int getThreadCount() {
+		return mThreads;
+	}
+
+	/**
+	 * Runs the task over [0, size) and waits for it to complete
+	 */
+	public void run(int size, RangeTask task) {
+		if (mExecutor == null || size < mSerialThreshold) {
+			task.run(0, size);
+			return;
+		}
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, (size + mThreads * CHUNKS_PER_THREAD - 1) / (mThreads * CHUNKS_PER_THREAD));
+		int chunkCount = (size + chunkSize - 1) / chunkSize;
+		int helpers = Math.min(mThreads, chunkCount) - 1;
+		mTask = task;
+		mSize = size;
+		mChunkSize = chunkSize;
+		mChunkCount = chunkCount;
+		mNextChunk.set(0);
+		mFailure = null;
+		synchronized (mLock) {
+			mRunningHelpers = helpers;
+		}
+		try {
+			for (int i=0; i<helpers; i++) {
+				try {
+					mExecutor.execute(mHelper);
+				} catch (RejectedExecutionException e) {
+					// Shut down, the calling thread runs the chunks of the helpers that did not start
+					synchronized (mLock) {
+						mRunningHelpers -= helpers - i;
+					}
+					break;
+				}
+			}
+			runChunks();
+		} finally {
+			boolean interrupted = false;
+			synchronized (mLock) {
+				while (mRunningHelpers > 0) {
+					try {
+						mLock.wait();
+					} catch (InterruptedException e) {
+						// The helpers are still writing the particles, keep waiting for them
+						interrupted = true;
+					}
+				}
+			}
+			mTask = null;
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (mFailure != null) {
+			throw mFailure;
+		}
+	}
+
+	private void runChunks() {
+		RangeTask task = mTask;
+		int chunk;
+		while ((chunk = mNextChunk.getAndIncrement()) < mChunkCount) {
+			int from = chunk * mChunkSize;
+			try {
+				task.run(from, Math.min(from + mChunkSize, mSize));
+			} catch (RuntimeException e) {
+				mFailure = e;
+			}
+		}
+	}
+
+	/**
+	 * Stops the worker threads, the updater cannot be used afterwards
+	 */
+	public void shutdown() {
+		if (mExecutor != null) {
+			mExecutor.shutdown();
+		}
+	}
+
+	private static class WorkerFactory implements ThreadFactory {
+
+		private final AtomicInteger mCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "ParticleSystem-worker-" + mCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * View over a single entry of a {@link ParticleBuffer}. The particle system does not keep one
+ * instance per particle, it loads the state into a view only to run the
+ * {@link com.nxmtl.android.sportsview.modifiers.ParticleModifier} and
+ * {@link com.nxmtl.android.sportsview.initializers.ParticleInitializer} callbacks.
+ */
+public class Particle {
+
+	public float mCurrentX;
+	public float mCurrentY;
+
+	public float mScale = 1f;
+	public int mAlpha = 255;
+
+	public float mInitialRotation = 0f;
+
+	public float mRotationSpeed = 0f;
+
+	public float mSpeedX = 0f;
+	public float mSpeedY = 0f;
+
+	public float mAccelerationX;
+	public float mAccelerationY;
+
+	/** RGB multiplied with the sprite, white by default */
+	public int mTint = 0xFFFFFF;
+
+	public int mFrame;
+
+	public float mRotation;
+
+	public void init() {
+		mScale = 1;
+		mAlpha = 255;
+		mTint = 0xFFFFFF;
+	}
+
+	/**
+	 * Copies the state of the particle at the given index into this view
+	 */
+	public Particle load(ParticleBuffer buffer, int index) {
+		mCurrentX = buffer.mCurrentX[index];
+		mCurrentY = buffer.mCurrentY[index];
+		mScale = buffer.mScale[index];
+		mAlpha = buffer.mAlpha[index];
+		mTint = buffer.mTint[index];
+		mInitialRotation = buffer.mInitialRotation[index];
+		mRotationSpeed = buffer.mRotationSpeed[index];
+		mRotation = buffer.mRotation[index];
+		mSpeedX = buffer.mSpeedX[index];
+		mSpeedY = buffer.mSpeedY[index];
+		mAccelerationX = buffer.mAccelerationX[index];
+		mAccelerationY = buffer.mAccelerationY[index];
+		mFrame = buffer.mFrame[index];
+		return this;
+	}
+
+	/**
+	 * Writes the state of this view back to the particle at the given index
+	 */
+	public void store(ParticleBuffer buffer, int index) {
+		buffer.mCurrentX[index] = mCurrentX;
+		buffer.mCurrentY[index] = mCurrentY;
+		buffer.mScale[index] = mScale;
+		buffer.mAlpha[index] = mAlpha;
+		buffer.mTint[index] = mTint;
+		buffer.mInitialRotation[index] = mInitialRotation;
+		buffer.mRotationSpeed[index] = mRotationSpeed;
+		buffer.mRotation[index] = mRotation;
+		buffer.mSpeedX[index] = mSpeedX;
+		buffer.mSpeedY[index] = mSpeedY;
+		buffer.mAccelerationX[index] = mAccelerationX;
+		buffer.mAccelerationY[index] = mAccelerationY;
+		buffer.mFrame[index] = mFrame;
+	}
+}
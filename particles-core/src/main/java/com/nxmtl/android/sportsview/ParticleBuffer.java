@@ -0,0 +1,136 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * Structure-of-arrays storage for the particles of a {@link ParticleSystem}. A particle is an
+ * index into the parallel arrays below, the live ones are kept packed in [0, mSize).
+ */
+public class ParticleBuffer {
+
+	public final int mCapacity;
+	public int mSize;
+
+	public final float[] mInitialX;
+	public final float[] mInitialY;
+	public final float[] mCurrentX;
+	public final float[] mCurrentY;
+	/** State at the previous step, used to interpolate between steps when drawing */
+	public final float[] mPreviousX;
+	public final float[] mPreviousY;
+	public final float[] mPreviousRotation;
+
+	public final float[] mSpeedX;
+	public final float[] mSpeedY;
+	public final float[] mAccelerationX;
+	public final float[] mAccelerationY;
+
+	public final float[] mInitialRotation;
+	public final float[] mRotationSpeed;
+	public final float[] mRotation;
+
+	public final float[] mScale;
+	public final int[] mAlpha;
+	/** RGB multiplied with the sprite */
+	public final int[] mTint;
+	/** Index of the sprite of the {@link SpriteSheet} */
+	public final int[] mSprite;
+	/** Index of the frame of the {@link SpriteSheet} to draw */
+	public final int[] mFrame;
+
+	public final long[] mStartingMilisecond;
+
+	public ParticleBuffer(int capacity) {
+		mCapacity = capacity;
+		mInitialX = new float[capacity];
+		mInitialY = new float[capacity];
+		mCurrentX = new float[capacity];
+		mCurrentY = new float[capacity];
+		mPreviousX = new float[capacity];
+		mPreviousY = new float[capacity];
+		mPreviousRotation = new float[capacity];
+		mSpeedX = new float[capacity];
+		mSpeedY = new float[capacity];
+		mAccelerationX = new float[capacity];
+		mAccelerationY = new float[capacity];
+		mInitialRotation = new float[capacity];
+		mRotationSpeed = new float[capacity];
+		mRotation = new float[capacity];
+		mScale = new float[capacity];
+		mAlpha = new int[capacity];
+		mTint = new int[capacity];
+		mSprite = new int[capacity];
+		mFrame = new int[capacity];
+		mStartingMilisecond = new long[capacity];
+	}
+
+	public boolean isFull() {
+		return mSize >= mCapacity;
+	}
+
+	/**
+	 * Reserves the index right after the last live particle
+	 *
+	 * @return the index of the new particle
+	 */
+	public int add() {
+		int index = mSize++;
+		mSpeedX[index] = 0f;
+		mSpeedY[index] = 0f;
+		mAccelerationX[index] = 0f;
+		mAccelerationY[index] = 0f;
+		mInitialRotation[index] = 0f;
+		mRotationSpeed[index] = 0f;
+		mScale[index] = 1f;
+		mAlpha[index] = 255;
+		mTint[index] = 0xFFFFFF;
+		mSprite[index] = 0;
+		mFrame[index] = 0;
+		return index;
+	}
+
+	/**
+	 * Saves the current position and rotation of the live particles as the previous step state
+	 */
+	public void savePrevious() {
+		System.arraycopy(mCurrentX, 0, mPreviousX, 0, mSize);
+		System.arraycopy(mCurrentY, 0, mPreviousY, 0, mSize);
+		System.arraycopy(mRotation, 0, mPreviousRotation, 0, mSize);
+	}
+
+	/**
+	 * Removes the particle at the given index by moving the last live particle into its place.
+	 * The drawing order is not kept, but nothing else has to be shifted.
+	 */
+	public void swapRemove(int index) {
+		int last = mSize - 1;
+		if (index != last) {
+			move(last, index);
+		}
+		mSize = last;
+	}
+
+	/**
+	 * Copies the particle at index from over the one at index to
+	 */
+	public void move(int from, int to) {
+		mInitialX[to] = mInitialX[from];
+		mInitialY[to] = mInitialY[from];
+		mCurrentX[to] = mCurrentX[from];
+		mCurrentY[to] = mCurrentY[from];
+		mPreviousX[to] = mPreviousX[from];
+		mPreviousY[to] = mPreviousY[from];
+		mPreviousRotation[to] = mPreviousRotation[from];
+		mSpeedX[to] = mSpeedX[from];
+		mSpeedY[to] = mSpeedY[from];
+		mAccelerationX[to] = mAccelerationX[from];
+		mAccelerationY[to] = mAccelerationY[from];
+		mInitialRotation[to] = mInitialRotation[from];
+		mRotationSpeed[to] = mRotationSpeed[from];
+		mRotation[to] = mRotation[from];
+		mScale[to] = mScale[from];
+		mAlpha[to] = mAlpha[from];
+		mTint[to] = mTint[from];
+		mSprite[to] = mSprite[from];
+		mFrame[to] = mFrame[from];
+		mStartingMilisecond[to] = mStartingMilisecond[from];
+	}
+}
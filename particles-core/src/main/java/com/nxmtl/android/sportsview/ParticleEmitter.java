@@ -0,0 +1,272 @@
+package com.nxmtl.android.sportsview;
+
+import com.nxmtl.android.sportsview.initializers.BatchInitializer;
+import com.nxmtl.android.sportsview.initializers.ParticleInitializer;
+import com.nxmtl.android.sportsview.initializers.PerParticleInitializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A source of particles for a {@link ParticleSystem}. A system can run several emitters at once,
+ * all of them sharing its pool, modifiers and draw pass.
+ * <ul>
+ * <li>{@link #continuous(float)} emits at a steady rate. The fraction of a particle that is due
+ * on an update is carried over to the next one, so low rates are exact and the rate does not
+ * depend on the length of the steps.</li>
+ * <li>{@link #burst(int, long, int)} emits a number of particles at once, every interval.</li>
+ * <li>{@link #oneShot(int)} emits a number of particles on the next update and is over.</li>
+ * </ul>
+ * Emission is measured from the previous update, never from absolute time, so resuming after a
+ * pause does not release the particles of the whole pause at once: a continuous emitter emits at
+ * most one time to live worth of particles, missed bursts collapse into one.
+ * <p>
+ * Particles get the initializers of the system first, then the ones of their emitter, which can
+ * override them. Emitters are configured and added from the thread updating the system.
+ * <p>
+ * Each emitter keeps its own capacity stats, so when several emitters share the pool it is
+ * possible to tell which one was starved. The pool keeps the totals.
+ */
+public class ParticleEmitter {
+
+	/** Passed as the repeat count of {@link #burst(int, long, int)} for bursts that never end */
+	public static final int REPEAT_FOREVER = -1;
+
+	private static final int MODE_CONTINUOUS = 0;
+	private static final int MODE_BURST = 1;
+	private static final int MODE_ONE_SHOT = 2;
+
+	private final int mMode;
+	private final float mParticlesPerMillisecond;
+	private final int mCount;
+	private final long mInterval;
+	private final int mRepeat;
+
+	private int mXMin;
+	private int mXMax;
+	private int mYMin;
+	private int mYMax;
+
+	final List<BatchInitializer> mInitializers = new ArrayList<>();
+
+	/** Particles due but not emitted yet, below one */
+	private float mAccumulated;
+	private long mLastTime;
+	private long mNextBurstTime;
+	private int mBurstsLeft;
+	private boolean mFinished;
+
+	/** Particles of this emitter alive in the system */
+	private int mActive;
+	private int mPeakActive;
+	private int mStarvationCount;
+
+	private ParticleEmitter(int mode, float particlesPerMillisecond, int count, long interval, int repeat) {
+		mMode = mode;
+		mParticlesPerMillisecond = particlesPerMillisecond;
+		mCount = count;
+		mInterval = interval;
+		mRepeat = repeat;
+		reset();
+	}
+
+	/**
+	 * Creates an emitter that emits at a steady rate until stopped
+	 */
+	public static ParticleEmitter continuous(float particlesPerSecond) {
+		return new ParticleEmitter(MODE_CONTINUOUS, particlesPerSecond / 1000f, 0, 0, 0);
+	}
+
+	/**
+	 * Creates an emitter that emits count particles at once when added, then every interval
+	 *
+	 * @param repeat how many bursts follow the first one, or {@link #REPEAT_FOREVER}
+	 */
+	public static ParticleEmitter burst(int count, long intervalMillis, int repeat) {
+		if (intervalMillis <= 0) {
+			throw new IllegalArgumentException("Burst interval must be positive: " + intervalMillis);
+		}
+		return new ParticleEmitter(MODE_BURST, 0, count, intervalMillis, repeat);
+	}
+
+	/**
+	 * Creates an emitter that emits count particles at once on the next update and is over, like
+	 * an explosion. It can be {@link #reset()} and added again to emit again.
+	 */
+	public static ParticleEmitter oneShot(int count) {
+		return new ParticleEmitter(MODE_ONE_SHOT, 0, count, 0, 0);
+	}
+
+	/**
+	 * Sets the area particles are emitted from
+	 *
+	 * @param area {xMin, xMax, yMin, yMax}, ignored if null or shorter
+	 */
+	public ParticleEmitter setArea(int[] area) {
+		if (area == null || area.length < 4) {
+			return this;
+		}
+		return setArea(area[0], area[1], area[2], area[3]);
+	}
+
+	public ParticleEmitter setArea(int xMin, int xMax, int yMin, int yMax) {
+		mXMin = xMin;
+		mXMax = xMax;
+		mYMin = yMin;
+		mYMax = yMax;
+		return this;
+	}
+
+	/**
+	 * Emits from a single point
+	 */
+	public ParticleEmitter setPoint(int x, int y) {
+		return setArea(x, x, y, y);
+	}
+
+	/**
+	 * Adds an initializer applied only to the particles of this emitter, after the ones of the
+	 * system
+	 */
+	public ParticleEmitter addInitializer(ParticleInitializer initializer) {
+		if (initializer instanceof BatchInitializer) {
+			mInitializers.add((BatchInitializer) initializer);
+		} else if (initializer != null) {
+			mInitializers.add(new PerParticleInitializer(initializer));
+		}
+		return this;
+	}
+
+	/**
+	 * Stops emitting, the system drops the emitter on its next update. Particles already emitted
+	 * live on.
+	 */
+	public void stop() {
+		mFinished = true;
+	}
+
+	/**
+	 * Rearms a stopped or finished emitter, so it can be added again
+	 */
+	public void reset() {
+		mFinished = false;
+		mAccumulated = 0;
+		mBurstsLeft = mRepeat;
+	}
+
+	public boolean isFinished() {
+		return mFinished;
+	}
+
+	/**
+	 * @return the number of particles of this emitter alive in the system
+	 */
+	public int getActiveCount() {
+		return mActive;
+	}
+
+	/**
+	 * @return the highest number of particles of this emitter that were alive at the same time
+	 */
+	public int getPeakActive() {
+		return mPeakActive;
+	}
+
+	/**
+	 * @return how many times this emitter could not emit all its particles because the pool
+	 * was exhausted
+	 */
+	public int getStarvationCount() {
+		return mStarvationCount;
+	}
+
+	public void resetStats() {
+		mPeakActive = mActive;
+		mStarvationCount = 0;
+	}
+
+	/**
+	 * Called by the system after taking particles from the pool for this emitter
+	 */
+	void onEmitted(int requested, int obtained) {
+		if (obtained < requested) {
+			mStarvationCount++;
+		}
+		mActive += obtained;
+		if (mActive > mPeakActive) {
+			mPeakActive = mActive;
+		}
+	}
+
+	/**
+	 * Called by the system when a particle of this emitter is over
+	 */
+	void onRecycled() {
+		mActive--;
+	}
+
+	int getXMin() {
+		return mXMin;
+	}
+
+	int getXMax() {
+		return mXMax;
+	}
+
+	int getYMin() {
+		return mYMin;
+	}
+
+	int getYMax() {
+		return mYMax;
+	}
+
+	/**
+	 * Called when added to a system, emission is measured from this time
+	 */
+	void start(long time) {
+		mLastTime = time;
+		mNextBurstTime = time;
+	}
+
+	/**
+	 * @param time the time of the update
+	 * @param maxElapsed the longest time worth emitting at once, particles older than it would
+	 * be over already
+	 * @return the number of particles to emit on this update
+	 */
+	int pending(long time, long maxElapsed) {
+		if (mFinished) {
+			return 0;
+		}
+		long elapsed = Math.min(Math.max(time - mLastTime, 0), maxElapsed);
+		mLastTime = time;
+		switch (mMode) {
+			case MODE_CONTINUOUS: {
+				float due = mAccumulated + mParticlesPerMillisecond * elapsed;
+				int count = (int) due;
+				mAccumulated = due - count;
+				return count;
+			}
+			case MODE_BURST: {
+				if (time < mNextBurstTime) {
+					return 0;
+				}
+				// Missed bursts collapse into one, the next one is an interval from now
+				mNextBurstTime += mInterval;
+				if (mNextBurstTime <= time) {
+					mNextBurstTime = time + mInterval;
+				}
+				if (mBurstsLeft == 0) {
+					mFinished = true;
+				} else if (mBurstsLeft > 0) {
+					mBurstsLeft--;
+				}
+				return mCount;
+			}
+			default:
+				mFinished = true;
+				return mCount;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * What is needed to draw the particles of a {@link ParticleSystem} at one point in time, with
+ * the interpolation between the last two steps already applied. Frames are preallocated for the
+ * capacity of the system and handed from the simulation to the drawing through a
+ * {@link ParticleFrameExchange}; once published a frame is not written until the reader has
+ * moved on to a newer one.
+ */
+public class ParticleFrame {
+
+	public final int mCapacity;
+	public int mCount;
+
+	/** Top left corner of the particle */
+	public final float[] mX;
+	public final float[] mY;
+	public final float[] mRotation;
+	public final float[] mScale;
+	public final int[] mAlpha;
+	/** RGB multiplied with the sprite */
+	public final int[] mTint;
+	/** Index of the frame of the {@link SpriteSheet} to draw */
+	public final int[] mFrame;
+
+	/**
+	 * Conservative bounds of the drawn particles, rotation and scale included, set by
+	 * {@link #computeBounds(SpriteSheet)}. Empty (all zero) when there are no particles.
+	 */
+	public float mLeft;
+	public float mTop;
+	public float mRight;
+	public float mBottom;
+
+	public ParticleFrame(int capacity) {
+		mCapacity = capacity;
+		mX = new float[capacity];
+		mY = new float[capacity];
+		mRotation = new float[capacity];
+		mScale = new float[capacity];
+		mAlpha = new int[capacity];
+		mTint = new int[capacity];
+		mFrame = new int[capacity];
+	}
+
+	/**
+	 * Copies the live particles, interpolating their position and rotation
+	 *
+	 * @param interpolation how far the frame is between the previous step and the current one
+	 */
+	public void capture(ParticleBuffer particles, float interpolation) {
+		int count = particles.mSize;
+		float[] previousX = particles.mPreviousX;
+		float[] previousY = particles.mPreviousY;
+		float[] previousRotation = particles.mPreviousRotation;
+		float[] currentX = particles.mCurrentX;
+		float[] currentY = particles.mCurrentY;
+		float[] rotation = particles.mRotation;
+		for (int i=0; i<count; i++) {
+			mX[i] = previousX[i] + (currentX[i] - previousX[i]) * interpolation;
+			mY[i] = previousY[i] + (currentY[i] - previousY[i]) * interpolation;
+			mRotation[i] = previousRotation[i] + (rotation[i] - previousRotation[i]) * interpolation;
+		}
+		System.arraycopy(particles.mScale, 0, mScale, 0, count);
+		System.arraycopy(particles.mAlpha, 0, mAlpha, 0, count);
+		System.arraycopy(particles.mTint, 0, mTint, 0, count);
+		System.arraycopy(particles.mFrame, 0, mFrame, 0, count);
+		mCount = count;
+	}
+
+	/**
+	 * Computes the bounds of the captured particles. Each particle is drawn around the center of
+	 * its frame, rotated and scaled; half the sum of the sides of the frame is used as the radius
+	 * around that center, which is never smaller than the half diagonal and needs no square root.
+	 */
+	public void computeBounds(SpriteSheet sheet) {
+		int count = mCount;
+		if (count == 0) {
+			mLeft = mTop = mRight = mBottom = 0;
+			return;
+		}
+		float left = Float.MAX_VALUE;
+		float top = Float.MAX_VALUE;
+		float right = -Float.MAX_VALUE;
+		float bottom = -Float.MAX_VALUE;
+		int[] frameWidth = sheet.mFrameWidth;
+		int[] frameHeight = sheet.mFrameHeight;
+		for (int i=0; i<count; i++) {
+			int width = frameWidth[mFrame[i]];
+			int height = frameHeight[mFrame[i]];
+			float centerX = mX[i] + width / 2;
+			float centerY = mY[i] + height / 2;
+			float radius = (width + height) * 0.5f * Math.abs(mScale[i]);
+			left = Math.min(left, centerX - radius);
+			top = Math.min(top, centerY - radius);
+			right = Math.max(right, centerX + radius);
+			bottom = Math.max(bottom, centerY + radius);
+		}
+		mLeft = left;
+		mTop = top;
+		mRight = right;
+		mBottom = bottom;
+	}
+}
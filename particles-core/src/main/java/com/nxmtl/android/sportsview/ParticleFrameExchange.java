@@ -0,0 +1,53 @@
+package com.nxmtl.android.sportsview;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock free triple buffer of {@link ParticleFrame}s between one writer, the simulation, and one
+ * reader, the drawing. The writer fills its back frame and publishes it by swapping it with the
+ * middle one; the reader swaps its front frame with the middle one when a newer frame has been
+ * published. Neither side ever waits for the other or allocates, and the reader always gets the
+ * newest complete frame.
+ */
+public class ParticleFrameExchange {
+
+	// The state holds the index of the middle frame, and whether it is newer than the front one
+	private static final int INDEX_MASK = 0x3;
+	private static final int FRESH = 0x4;
+
+	private final ParticleFrame[] mFrames;
+	private final AtomicInteger mState = new AtomicInteger(1);
+	// Only used by the writer
+	private int mBack = 0;
+	// Only used by the reader
+	private int mFront = 2;
+
+	public ParticleFrameExchange(int capacity) {
+		mFrames = new ParticleFrame[] {
+				new ParticleFrame(capacity), new ParticleFrame(capacity), new ParticleFrame(capacity)};
+	}
+
+	/**
+	 * @return the frame to fill before calling {@link #publish()}. Writer side.
+	 */
+	public ParticleFrame getBackFrame() {
+		return mFrames[mBack];
+	}
+
+	/**
+	 * Makes the back frame available to the reader. Writer side.
+	 */
+	public void publish() {
+		mBack = mState.getAndSet(mBack | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * @return the newest published frame, which stays valid until the next call. Reader side.
+	 */
+	public ParticleFrame acquire() {
+		if ((mState.get() & FRESH) != 0) {
+			mFront = mState.getAndSet(mFront) & INDEX_MASK;
+		}
+		return mFrames[mFront];
+	}
+}
@@ -0,0 +1,111 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * Triangle mesh of the particles of a {@link ParticleFrame}, in the layout of
+ * Canvas.drawVertices: each particle is a quad of four vertices and two triangles, with its frame
+ * of the {@link SpriteSheet} as texture coordinates and its alpha and tint as vertex color. The
+ * buffers are sized for a capacity and reused, so building the mesh does not allocate.
+ */
+public class ParticleMesh {
+
+	public static final int VERTICES_PER_PARTICLE = 4;
+	public static final int INDICES_PER_PARTICLE = 6;
+	/** Indices are shorts, so a draw call can reference this many particles at most */
+	public static final int MAX_PARTICLES_PER_BATCH = 0x10000 / VERTICES_PER_PARTICLE;
+
+	private final SpriteSheet mSheet;
+
+	/** x, y of each vertex */
+	public final float[] mVertices;
+	/** u, v of each vertex, in pixels of the atlas */
+	public final float[] mTextures;
+	public final int[] mColors;
+	/** Triangles of the first {@link #MAX_PARTICLES_PER_BATCH} quads, the same for every batch */
+	public final short[] mIndices;
+
+	public ParticleMesh(SpriteSheet sheet, int capacity) {
+		mSheet = sheet;
+		int batchCapacity = Math.min(capacity, MAX_PARTICLES_PER_BATCH);
+		mVertices = new float[capacity * VERTICES_PER_PARTICLE * 2];
+		mTextures = new float[capacity * VERTICES_PER_PARTICLE * 2];
+		mColors = new int[capacity * VERTICES_PER_PARTICLE];
+		mIndices = new short[batchCapacity * INDICES_PER_PARTICLE];
+		for (int i=0; i<batchCapacity; i++) {
+			int vertex = i * VERTICES_PER_PARTICLE;
+			int index = i * INDICES_PER_PARTICLE;
+			mIndices[index] = (short) vertex;
+			mIndices[index + 1] = (short) (vertex + 1);
+			mIndices[index + 2] = (short) (vertex + 2);
+			mIndices[index + 3] = (short) vertex;
+			mIndices[index + 4] = (short) (vertex + 2);
+			mIndices[index + 5] = (short) (vertex + 3);
+		}
+	}
+
+	/**
+	 * Writes the quads of the particles of the frame
+	 *
+	 * @return the number of quads written
+	 */
+	public int fill(ParticleFrame particles) {
+		float[] vertices = mVertices;
+		float[] textures = mTextures;
+		int[] colors = mColors;
+		SpriteSheet sheet = mSheet;
+		int size = particles.mCount;
+		for (int i=0; i<size; i++) {
+			int frame = particles.mFrame[i];
+			int frameLeft = sheet.mFrameLeft[frame];
+			int frameTop = sheet.mFrameTop[frame];
+			int frameWidth = sheet.mFrameWidth[frame];
+			int frameHeight = sheet.mFrameHeight[frame];
+			int halfWidth = frameWidth / 2;
+			int halfHeight = frameHeight / 2;
+			float rotation = particles.mRotation[i];
+			float scale = particles.mScale[i];
+			float cos = FastMath.cosDeg(rotation) * scale;
+			float sin = FastMath.sinDeg(rotation) * scale;
+			float centerX = particles.mX[i] + halfWidth;
+			float centerY = particles.mY[i] + halfHeight;
+			// Edges of the quad around the rotation center, rotated and scaled
+			float leftX = -halfWidth * cos;
+			float leftY = -halfWidth * sin;
+			float rightX = (frameWidth - halfWidth) * cos;
+			float rightY = (frameWidth - halfWidth) * sin;
+			float topX = halfHeight * sin;
+			float topY = -halfHeight * cos;
+			float bottomX = -(frameHeight - halfHeight) * sin;
+			float bottomY = (frameHeight - halfHeight) * cos;
+
+			int v = i * VERTICES_PER_PARTICLE * 2;
+			vertices[v] = centerX + leftX + topX;
+			vertices[v + 1] = centerY + leftY + topY;
+			vertices[v + 2] = centerX + rightX + topX;
+			vertices[v + 3] = centerY + rightY + topY;
+			vertices[v + 4] = centerX + rightX + bottomX;
+			vertices[v + 5] = centerY + rightY + bottomY;
+			vertices[v + 6] = centerX + leftX + bottomX;
+			vertices[v + 7] = centerY + leftY + bottomY;
+
+			float frameRight = frameLeft + frameWidth;
+			float frameBottom = frameTop + frameHeight;
+			textures[v] = frameLeft;
+			textures[v + 1] = frameTop;
+			textures[v + 2] = frameRight;
+			textures[v + 3] = frameTop;
+			textures[v + 4] = frameRight;
+			textures[v + 5] = frameBottom;
+			textures[v + 6] = frameLeft;
+			textures[v + 7] = frameBottom;
+
+			// Tint and alpha of the particle, modulating the sprite
+			int color = (particles.mAlpha[i] << 24) | particles.mTint[i];
+			int c = i * VERTICES_PER_PARTICLE;
+			colors[c] = color;
+			colors[c + 1] = color;
+			colors[c + 2] = color;
+			colors[c + 3] = color;
+		}
+		return size;
+	}
+}
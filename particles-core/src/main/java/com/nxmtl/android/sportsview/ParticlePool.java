@@ -0,0 +1,101 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * Fixed capacity pool over a {@link ParticleBuffer}. The active particles are packed at the
+ * start of the buffer and the free slots are the tail [mSize, mCapacity), so both obtaining and
+ * recycling a particle are O(1): the head of the free list is always index mSize and a dead
+ * particle is swapped with the last active one.
+ * It also keeps a few capacity stats to tell whether the emitter is sized properly.
+ */
+public class ParticlePool {
+
+	private final ParticleBuffer mParticles;
+
+	private int mPeakActive;
+	private int mStarvationCount;
+
+	public ParticlePool(int capacity) {
+		mParticles = new ParticleBuffer(capacity);
+	}
+
+	public ParticleBuffer getParticles() {
+		return mParticles;
+	}
+
+	/**
+	 * Takes a particle from the free list
+	 *
+	 * @return the index of the particle in the buffer or -1 if the pool is exhausted
+	 */
+	public int obtain() {
+		if (mParticles.isFull()) {
+			mStarvationCount++;
+			return -1;
+		}
+		int index = mParticles.add();
+		if (mParticles.mSize > mPeakActive) {
+			mPeakActive = mParticles.mSize;
+		}
+		return index;
+	}
+
+	/**
+	 * Takes up to count particles from the free list. The particles obtained are the last ones of
+	 * the active range, they start at the size of the buffer before the call.
+	 *
+	 * @return the number of particles obtained, less than count if the pool got exhausted
+	 */
+	public int obtain(int count) {
+		int free = mParticles.mCapacity - mParticles.mSize;
+		if (count > free) {
+			mStarvationCount++;
+			count = free;
+		}
+		for (int i=0; i<count; i++) {
+			mParticles.add();
+		}
+		if (mParticles.mSize > mPeakActive) {
+			mPeakActive = mParticles.mSize;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the particle at the given index to the free list. The last active particle is moved
+	 * into that index, so callers iterating the active set should go from the end to the start.
+	 */
+	public void recycle(int index) {
+		mParticles.swapRemove(index);
+	}
+
+	public int getCapacity() {
+		return mParticles.mCapacity;
+	}
+
+	public int getActiveCount() {
+		return mParticles.mSize;
+	}
+
+	public int getFreeCount() {
+		return mParticles.mCapacity - mParticles.mSize;
+	}
+
+	/**
+	 * @return the highest number of particles that were alive at the same time
+	 */
+	public int getPeakActive() {
+		return mPeakActive;
+	}
+
+	/**
+	 * @return how many times a particle should have been emitted but the pool was exhausted
+	 */
+	public int getStarvationCount() {
+		return mStarvationCount;
+	}
+
+	public void resetStats() {
+		mPeakActive = mParticles.mSize;
+		mStarvationCount = 0;
+	}
+}
@@ -0,0 +1,586 @@
+package com.nxmtl.android.sportsview;
+
+import com.nxmtl.android.sportsview.initializers.AccelerationInitializer;
+import com.nxmtl.android.sportsview.initializers.BatchInitializer;
+import com.nxmtl.android.sportsview.initializers.ParticleInitializer;
+import com.nxmtl.android.sportsview.initializers.PerParticleInitializer;
+import com.nxmtl.android.sportsview.initializers.RotationInitializer;
+import com.nxmtl.android.sportsview.initializers.RotationSpeedInitializer;
+import com.nxmtl.android.sportsview.initializers.ScaleInitializer;
+import com.nxmtl.android.sportsview.initializers.SpeedModuleAndRangeInitializer;
+import com.nxmtl.android.sportsview.initializers.SpeeddByComponentsInitializer;
+import com.nxmtl.android.sportsview.modifiers.AlphaModifier;
+import com.nxmtl.android.sportsview.modifiers.BatchModifier;
+import com.nxmtl.android.sportsview.modifiers.CurveTrack;
+import com.nxmtl.android.sportsview.modifiers.Easing;
+import com.nxmtl.android.sportsview.modifiers.ParticleModifier;
+import com.nxmtl.android.sportsview.modifiers.PerParticleModifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ParticleSystem {
+
+	private int mMaxParticles;
+	private Random mRandom;
+
+	private final ParticlePool mPool;
+	private final ParticleBuffer mParticles;
+	private final ParticleFrameExchange mFrames;
+	private final SpriteSheet mSpriteSheet;
+	private boolean mAnimated;
+	// Time alive of each particle on the current update and whether it is over, indexed like the buffer
+	private final long[] mAges;
+	private final boolean[] mDead;
+	// Emitter of each particle, indexed like the buffer, for the stats of the emitters
+	private final ParticleEmitter[] mOwners;
+	private ParallelUpdater mParallelUpdater;
+	private long mUpdateTime;
+	private final ParallelUpdater.RangeTask mUpdateTask = new ParallelUpdater.RangeTask() {
+		@Override
+		public void run(int from, int to) {
+			updateRange(from, to, mUpdateTime);
+		}
+	};
+	private long mTimeToLive;
+	private long mCurrentTime = 0;
+	private List<BatchModifier> mModifiers;
+	private List<BatchInitializer> mInitializers;
+	private final List<ParticleEmitter> mEmitters = new ArrayList<>();
+	/** The emitter of {@link #prepareEmitting(int, int[])} */
+	private ParticleEmitter mDefaultEmitter;
+
+
+	private float mDpToPxScale;
+
+
+
+	/**
+	 * Creates a particle system with the given parameters
+	 *
+	 * @param maxParticles The maximum number of particles
+	 * @param sprites The layout of the images of the particles
+	 * @param timeToLive The time to live for the particles
+	 * @param pixelsPerDp The density used to convert the speeds and accelerations given in dp
+	 */
+	public ParticleSystem(int maxParticles, SpriteSheet sprites, long timeToLive, float pixelsPerDp) {
+		mRandom = new XoroshiroRandom();
+
+		mModifiers = new ArrayList<>();
+		mInitializers = new ArrayList<>();
+
+		mMaxParticles = maxParticles;
+		// Create the particles
+
+		mPool = new ParticlePool(mMaxParticles);
+		mParticles = mPool.getParticles();
+		mFrames = new ParticleFrameExchange(mMaxParticles);
+		mAges = new long[mMaxParticles];
+		mDead = new boolean[mMaxParticles];
+		mOwners = new ParticleEmitter[mMaxParticles];
+		mTimeToLive = timeToLive;
+		mDpToPxScale = pixelsPerDp;
+		mSpriteSheet = sprites;
+		mAnimated = sprites.hasAnimations();
+	}
+
+	/**
+	 * Creates a particle system where a dp is a pixel
+	 */
+	public ParticleSystem(int maxParticles, SpriteSheet sprites, long timeToLive) {
+		this(maxParticles, sprites, timeToLive, 1f);
+	}
+
+	public float dpToPx(float dp) {
+		return dp * mDpToPxScale;
+	}
+
+	/**
+	 * @return the layout of the frames referenced by {@link ParticleBuffer#mFrame}
+	 */
+	public SpriteSheet getSpriteSheet() {
+		return mSpriteSheet;
+	}
+
+	/**
+	 * @return the pool holding the particles, also exposes its capacity stats for all the
+	 * emitters together, see {@link ParticleEmitter#getStarvationCount()} for each emitter
+	 */
+	public ParticlePool getPool() {
+		return mPool;
+	}
+
+	/**
+	 * @return the live particles. Only safe to use from the thread updating the system, drawing
+	 * goes through {@link #acquireFrame()}.
+	 */
+	public ParticleBuffer getParticles() {
+		return mParticles;
+	}
+
+	/**
+	 * Publishes the particles for drawing, interpolated between the last two updates. Called from
+	 * the thread updating the system, once per displayed frame.
+	 *
+	 * @return the published frame, which the caller may read (for its bounds) but not modify
+	 */
+	public ParticleFrame publishFrame(float interpolation) {
+		ParticleFrame frame = mFrames.getBackFrame();
+		frame.capture(mParticles, interpolation);
+		frame.computeBounds(mSpriteSheet);
+		mFrames.publish();
+		return frame;
+	}
+
+	/**
+	 * @return the newest published frame, to be drawn with the frames of {@link #getSpriteSheet()}. It can be
+	 * called from another thread than the updates, without blocking them, and the frame is not
+	 * modified until the next call.
+	 */
+	public ParticleFrame acquireFrame() {
+		return mFrames.acquire();
+	}
+
+	/**
+	 * Seeds the random generator used to emit the particles, the simulation is then the same on
+	 * every run, with or without a {@link ParallelUpdater}.
+	 */
+	public ParticleSystem setRandomSeed(long seed) {
+		mRandom.setSeed(seed);
+		return this;
+	}
+
+	/**
+	 * Replaces the random generator used to emit the particles. The default one is a
+	 * {@link XoroshiroRandom}, which is not thread safe: it is only used on the thread that
+	 * updates the system.
+	 */
+	public ParticleSystem setRandom(Random random) {
+		mRandom = random;
+		return this;
+	}
+
+	/**
+	 * Opts in to updating the particles on several threads. Large systems are split in chunks
+	 * across the threads of the updater, small ones keep being updated serially. The modifiers
+	 * are then called from several threads at once, on disjoint ranges, so custom ones must not
+	 * keep state between particles.
+	 *
+	 * @param updater the updater to use, or null to go back to serial updates. It is not shut
+	 * down by the particle system.
+	 */
+	public ParticleSystem setParallelUpdater(ParallelUpdater updater) {
+		mParallelUpdater = updater;
+		return this;
+	}
+
+	/**
+	 * Adds a modifier to the Particle system, it will be executed on each update. Modifiers that
+	 * are not a {@link BatchModifier} are run one particle at a time.
+	 *
+	 * @param modifier modifier to be added to the ParticleSystem
+	 */
+	public ParticleSystem addModifier(ParticleModifier modifier) {
+		if (modifier instanceof BatchModifier) {
+			mModifiers.add((BatchModifier) modifier);
+		} else {
+			mModifiers.add(new PerParticleModifier(modifier));
+		}
+		return this;
+	}
+
+	public ParticleSystem setSpeedRange(float speedMin, float speedMax) {
+		mInitializers.add(new SpeedModuleAndRangeInitializer(dpToPx(speedMin), dpToPx(speedMax), 0, 360));
+		return this;
+	}
+
+    /**
+     * Initializes the speed range and angle range of emitted particles. Angles are in degrees
+     * and non negative:
+     * 0 meaning to the right, 90 to the bottom,... in clockwise orientation. Speed is non
+	 * negative and is described in pixels per millisecond.
+     * @param speedMin The minimum speed to emit particles.
+     * @param speedMax The maximum speed to emit particles.
+     * @param minAngle The minimum angle to emit particles in degrees.
+     * @param maxAngle The maximum angle to emit particles in degrees.
+     * @return This.
+     */
+	public ParticleSystem setSpeedModuleAndAngleRange(float speedMin, float speedMax, int minAngle, int maxAngle) {
+        // else emitting from top (270°) to bottom (90°) range would not be possible if someone
+        // entered minAngle = 270 and maxAngle=90 since the module would swap the values
+        while (maxAngle < minAngle) {
+            maxAngle += 360;
+        }
+		mInitializers.add(new SpeedModuleAndRangeInitializer(dpToPx(speedMin), dpToPx(speedMax), minAngle, maxAngle));
+		return this;
+	}
+
+    /**
+     * Initializes the speed components ranges that particles will be emitted. Speeds are
+     * measured in density pixels per millisecond.
+     * @param speedMinX The minimum speed in x direction.
+     * @param speedMaxX The maximum speed in x direction.
+     * @param speedMinY The minimum speed in y direction.
+     * @param speedMaxY The maximum speed in y direction.
+     * @return This.
+     */
+	public ParticleSystem setSpeedByComponentsRange(float speedMinX, float speedMaxX, float speedMinY, float speedMaxY) {
+        mInitializers.add(new SpeeddByComponentsInitializer(dpToPx(speedMinX), dpToPx(speedMaxX),
+				dpToPx(speedMinY), dpToPx(speedMaxY)));
+		return this;
+	}
+
+    /**
+     * Initializes the initial rotation range of emitted particles. The rotation angle is
+     * measured in degrees with 0° being no rotation at all and 90° tilting the image to the right.
+     * @param minAngle The minimum tilt angle.
+     * @param maxAngle The maximum tilt angle.
+     * @return This.
+     */
+	public ParticleSystem setInitialRotationRange(int minAngle, int maxAngle) {
+		mInitializers.add(new RotationInitializer(minAngle, maxAngle));
+		return this;
+	}
+
+    /**
+     * Initializes the scale range of emitted particles. Will scale the images around their
+     * center multiplied with the given scaling factor.
+     * @param minScale The minimum scaling factor
+     * @param maxScale The maximum scaling factor.
+     * @return This.
+     */
+	public ParticleSystem setScaleRange(float minScale, float maxScale) {
+		mInitializers.add(new ScaleInitializer(minScale, maxScale));
+		return this;
+	}
+
+    /**
+     * Initializes the rotation speed of emitted particles. Rotation speed is measured in degrees
+     * per second.
+     * @param rotationSpeed The rotation speed.
+     * @return This.
+     */
+	public ParticleSystem setRotationSpeed(float rotationSpeed) {
+        mInitializers.add(new RotationSpeedInitializer(rotationSpeed, rotationSpeed));
+		return this;
+	}
+
+    /**
+     * Initializes the rotation speed range for emitted particles. The rotation speed is measured
+     * in degrees per second and can be positive or negative.
+     * @param minRotationSpeed The minimum rotation speed.
+     * @param maxRotationSpeed The maximum rotation speed.
+     * @return This.
+     */
+	public ParticleSystem setRotationSpeedRange(float minRotationSpeed, float maxRotationSpeed) {
+        mInitializers.add(new RotationSpeedInitializer(minRotationSpeed, maxRotationSpeed));
+		return this;
+	}
+
+    /**
+     * Initializes the acceleration range and angle range of emitted particles. The acceleration
+     * components in x and y direction are controlled by the acceleration angle. The acceleration
+     * is measured in density pixels per square millisecond. The angle is measured in degrees
+     * with 0° pointing to the right and going clockwise.
+     * @param minAcceleration
+     * @param maxAcceleration
+     * @param minAngle
+     * @param maxAngle
+     * @return
+     */
+	public ParticleSystem setAccelerationModuleAndAndAngleRange(float minAcceleration, float maxAcceleration, int minAngle, int maxAngle) {
+        mInitializers.add(new AccelerationInitializer(dpToPx(minAcceleration), dpToPx(maxAcceleration),
+				minAngle, maxAngle));
+		return this;
+	}
+
+	/**
+	 * Adds a custom initializer for emitted particles. The most common use case is the ability to
+	 * update the initializer in real-time instead of adding new ones ontop of the existing one.
+	 * @param initializer The non-null initializer to add.
+	 * @return This.
+	 */
+	public ParticleSystem addInitializer(ParticleInitializer initializer) {
+		if (initializer instanceof BatchInitializer) {
+			mInitializers.add((BatchInitializer) initializer);
+		} else if (initializer != null) {
+			mInitializers.add(new PerParticleInitializer(initializer));
+		}
+		return this;
+	}
+
+    /**
+     * Initializes the acceleration for emitted particles with the given angle. Acceleration is
+     * measured in pixels per square millisecond. The angle is measured in degrees with 0°
+     * meaning to the right and orientation being clockwise. The angle controls the acceleration
+     * direction.
+     * @param acceleration The acceleration.
+     * @param angle The acceleration direction.
+     * @return This.
+     */
+	public ParticleSystem setAcceleration(float acceleration, int angle) {
+        mInitializers.add(new AccelerationInitializer(acceleration, acceleration, angle, angle));
+		return this;
+	}
+
+
+
+	public ParticleSystem setStartTime(long time) {
+		mCurrentTime = time;
+		return this;
+	}
+
+	/**
+	 * Configures a fade out for the particles when they disappear. The easing is baked into
+	 * a {@link CurveTrack} here, so it is not called on updates.
+	 *
+	 * @param milisecondsBeforeEnd fade out duration in milliseconds
+	 * @param easing the easing for the fade out (default is linear)
+	 */
+	public ParticleSystem setFadeOut(long milisecondsBeforeEnd, Easing easing) {
+		return setFadeOut(milisecondsBeforeEnd, CurveTrack.bake(easing));
+	}
+
+	/**
+	 * Configures a fade out for the particles when they disappear
+	 *
+	 * @param milisecondsBeforeEnd fade out duration in milliseconds
+	 * @param track the curve of the fade out, can be shared with other modifiers
+	 */
+	public ParticleSystem setFadeOut(long milisecondsBeforeEnd, CurveTrack track) {
+		mModifiers.add(new AlphaModifier(255, 0, mTimeToLive-milisecondsBeforeEnd, mTimeToLive, track));
+		return this;
+	}
+
+	/**
+	 * Configures a fade out for the particles when they disappear
+	 *
+	 * @param duration fade out duration in milliseconds
+	 */
+	public ParticleSystem setFadeOut(long duration) {
+		return setFadeOut(duration, CurveTrack.linear());
+	}
+
+
+
+	/**
+	 * Starts emitting at a steady rate from the given area, replacing the previous call. Other
+	 * emitters are left running.
+	 *
+	 * @param emitter {xMin, xMax, yMin, yMax}
+	 */
+	public void prepareEmitting(int particlesPerSecond, int[] emitter) {
+		if (mDefaultEmitter != null) {
+			removeEmitter(mDefaultEmitter);
+		}
+		mDefaultEmitter = ParticleEmitter.continuous(particlesPerSecond).setArea(emitter);
+		addEmitter(mDefaultEmitter);
+	}
+
+	public void updateEmitPoint (int [] emitter) {
+		if (mDefaultEmitter != null) {
+			mDefaultEmitter.setArea(emitter);
+		}
+	}
+
+	/**
+	 * Adds an emitter, which starts emitting on the next update and is dropped once over. All the
+	 * emitters share the pool of the system.
+	 */
+	public ParticleSystem addEmitter(ParticleEmitter emitter) {
+		emitter.start(mCurrentTime);
+		mEmitters.add(emitter);
+		return this;
+	}
+
+	public ParticleSystem removeEmitter(ParticleEmitter emitter) {
+		mEmitters.remove(emitter);
+		return this;
+	}
+
+	/**
+	 * @return the emitters that are still running
+	 */
+	public List<ParticleEmitter> getEmitters() {
+		return mEmitters;
+	}
+
+	/**
+	 * Emits up to count particles at once
+	 *
+	 * @return the number of particles emitted, less than count if the pool got exhausted
+	 */
+	private int activateParticles(ParticleEmitter emitter, int count, long delay) {
+		ParticleBuffer particles = mParticles;
+		int first = particles.mSize;
+		int obtained = mPool.obtain(count);
+		int end = first + obtained;
+		emitter.onEmitted(count, obtained);
+		Arrays.fill(mOwners, first, end, emitter);
+		// Initialization goes before configuration, scale is required before can be configured properly
+		for (int i=0; i<mInitializers.size(); i++) {
+			mInitializers.get(i).initParticles(particles, first, end, mRandom);
+		}
+		List<BatchInitializer> emitterInitializers = emitter.mInitializers;
+		for (int i=0; i<emitterInitializers.size(); i++) {
+			emitterInitializers.get(i).initParticles(particles, first, end, mRandom);
+		}
+		SpriteSheet sheet = mSpriteSheet;
+		int spriteCount = sheet.getSpriteCount();
+		int xMin = emitter.getXMin();
+		int xMax = emitter.getXMax();
+		int yMin = emitter.getYMin();
+		int yMax = emitter.getYMax();
+		for (int index=first; index<end; index++) {
+			int particleX = getFromRange (xMin, xMax);
+			int particleY = getFromRange (yMin, yMax);
+			int sprite = spriteCount > 1 ? mRandom.nextInt(spriteCount) : 0;
+			int frame = sheet.getFirstFrame(sprite);
+			particles.mSprite[index] = sprite;
+			particles.mFrame[index] = frame;
+			particles.mInitialX[index] = particleX - sheet.mFrameWidth[frame]/2;
+			particles.mInitialY[index] = particleY - sheet.mFrameHeight[frame]/2;
+			particles.mCurrentX[index] = particles.mInitialX[index];
+			particles.mCurrentY[index] = particles.mInitialY[index];
+			particles.mRotation[index] = particles.mInitialRotation[index];
+			particles.mStartingMilisecond[index] = delay;
+		}
+		return obtained;
+	}
+
+	private int getFromRange(int minValue, int maxValue) {
+		if (minValue == maxValue) {
+			return minValue;
+		}
+		if (minValue < maxValue) {
+			return mRandom.nextInt(maxValue - minValue) + minValue;
+		}
+		else {
+			return mRandom.nextInt(minValue - maxValue) + maxValue;
+		}
+	}
+
+	/**
+	 * Advances the simulation to the given time. Drawing is left to the caller, which is expected
+	 * to {@link #publishFrame(float)} and invalidate the view once per frame.
+	 */
+	protected void onUpdate(long miliseconds) {
+		mCurrentTime = miliseconds;
+		emit(miliseconds);
+		ParticleBuffer particles = mParticles;
+		particles.savePrevious();
+		if (mParallelUpdater != null) {
+			mUpdateTime = miliseconds;
+			mParallelUpdater.run(particles.mSize, mUpdateTask);
+		} else {
+			updateRange(0, particles.mSize, miliseconds);
+		}
+		recycleDead(particles);
+	}
+
+	/**
+	 * Updates the particles in [from, to). Only touches that range, so disjoint ranges can be
+	 * updated in parallel; the particles that are over are flagged and recycled afterwards.
+	 */
+	private void updateRange(int from, int to, long miliseconds) {
+		ParticleBuffer particles = mParticles;
+		long[] ages = mAges;
+		boolean[] dead = mDead;
+		long[] startingMilisecond = particles.mStartingMilisecond;
+		for (int i=from; i<to; i++) {
+			long age = miliseconds - startingMilisecond[i];
+			ages[i] = age;
+			dead[i] = age > mTimeToLive;
+		}
+		updateMotion(particles, from, to, ages);
+		for (int i=0; i<mModifiers.size(); i++) {
+			mModifiers.get(i).apply(particles, from, to, ages);
+		}
+		if (mAnimated) {
+			updateFrames(particles, from, to, ages, dead);
+		}
+	}
+
+	/**
+	 * Runs the emitters, in the order they were added, and drops the ones that are over
+	 */
+	private void emit(long miliseconds) {
+		List<ParticleEmitter> emitters = mEmitters;
+		for (int i=0; i<emitters.size(); i++) {
+			ParticleEmitter emitter = emitters.get(i);
+			int pending = emitter.pending(miliseconds, mTimeToLive);
+			if (pending > 0) {
+				activateParticles(emitter, pending, miliseconds);
+			}
+		}
+		for (int i=emitters.size() - 1; i>=0; i--) {
+			if (emitters.get(i).isFinished()) {
+				emitters.remove(i);
+			}
+		}
+	}
+
+	private void recycleDead(ParticleBuffer particles) {
+		boolean[] dead = mDead;
+		ParticleEmitter[] owners = mOwners;
+		// Backwards, a recycled index gets the last particle which has already been checked
+		for (int i = particles.mSize - 1; i >= 0; i--) {
+			if (dead[i]) {
+				dead[i] = false;
+				owners[i].onRecycled();
+				// The owner follows the last particle, moved into this index by the pool
+				int last = particles.mSize - 1;
+				owners[i] = owners[last];
+				owners[last] = null;
+				mPool.recycle(i);
+			}
+		}
+	}
+
+	private static void updateMotion(ParticleBuffer particles, int from, int to, long[] ages) {
+		float[] initialX = particles.mInitialX;
+		float[] initialY = particles.mInitialY;
+		float[] speedX = particles.mSpeedX;
+		float[] speedY = particles.mSpeedY;
+		float[] accelerationX = particles.mAccelerationX;
+		float[] accelerationY = particles.mAccelerationY;
+		float[] currentX = particles.mCurrentX;
+		float[] currentY = particles.mCurrentY;
+		for (int i=from; i<to; i++) {
+			long age = ages[i];
+			currentX[i] = initialX[i] + speedX[i]*age + accelerationX[i]*age*age;
+			currentY[i] = initialY[i] + speedY[i]*age + accelerationY[i]*age*age;
+		}
+		float[] initialRotation = particles.mInitialRotation;
+		float[] rotationSpeed = particles.mRotationSpeed;
+		float[] rotation = particles.mRotation;
+		for (int i=from; i<to; i++) {
+			rotation[i] = initialRotation[i] + rotationSpeed[i]*ages[i]/1000;
+		}
+	}
+
+	private void updateFrames(ParticleBuffer particles, int from, int to, long[] ages, boolean[] dead) {
+		SpriteSheet sheet = mSpriteSheet;
+		for (int i=from; i<to; i++) {
+			int frame = sheet.frameAt(particles.mSprite[i], ages[i]);
+			if (frame < 0) {
+				// One shot animation that is over
+				dead[i] = true;
+			} else {
+				particles.mFrame[i] = frame;
+			}
+		}
+	}
+
+	/**
+	 * Stops every emitter, the particles already emitted live on
+	 */
+	public void stopEmitting () {
+		for (int i=0; i<mEmitters.size(); i++) {
+			mEmitters.get(i).stop();
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.nxmtl.android.sportsview;
+
+/**
+ * Layout of the frames packed in a sprite atlas. A sprite is one of the particle images of a
+ * system, it covers the frames [getFirstFrame(sprite), getFirstFrame(sprite) + frame count) and
+ * has a {@link FrameTable} when it is animated. Particles store the index of the frame they show.
+ */
+public class SpriteSheet {
+
+	/** Bounds of each frame in the atlas, in pixels */
+	public final int[] mFrameLeft;
+	public final int[] mFrameTop;
+	public final int[] mFrameWidth;
+	public final int[] mFrameHeight;
+
+	private final int[] mFirstFrame;
+	private final FrameTable[] mFrameTables;
+
+	/**
+	 * @param firstFrame the first frame of each sprite
+	 * @param frameTables the animation of each sprite, null entries for static sprites
+	 */
+	public SpriteSheet(int[] frameLeft, int[] frameTop, int[] frameWidth, int[] frameHeight,
+					   int[] firstFrame, FrameTable[] frameTables) {
+		mFrameLeft = frameLeft;
+		mFrameTop = frameTop;
+		mFrameWidth = frameWidth;
+		mFrameHeight = frameHeight;
+		mFirstFrame = firstFrame;
+		mFrameTables = frameTables;
+	}
+
+	public int getSpriteCount() {
+		return mFirstFrame.length;
+	}
+
+	public int getFrameCount() {
+		return mFrameLeft.length;
+	}
+
+	public int getFirstFrame(int sprite) {
+		return mFirstFrame[sprite];
+	}
+
+	public boolean isAnimated(int sprite) {
+		return mFrameTables[sprite] != null;
+	}
+
+	/**
+	 * @return true if any of the sprites is animated
+	 */
+	public boolean hasAnimations() {
+		for (int i=0; i<mFrameTables.length; i++) {
+			if (mFrameTables[i] != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param sprite the sprite of the particle
+	 * @param miliseconds the time the particle has been alive
+	 * @return the frame to show, -1 if the sprite is a one shot animation that is over
+	 */
+	public int frameAt(int sprite, long miliseconds) {
+		FrameTable frameTable = mFrameTables[sprite];
+		if (frameTable == null) {
+			return mFirstFrame[sprite];
+		}
+		int frame = frameTable.frameAt(miliseconds);
+		return frame < 0 ? -1 : mFirstFrame[sprite] + frame;
+	}
+}
@@ -0,0 +1,140 @@
+package com.nxmtl.android.sportsview;
+
+import java.util.Random;
+
+/**
+ * xoroshiro128+ generator. {@link Random} updates its seed with a compare and set on every call
+ * so it can be shared between threads; this one keeps its state in plain fields, which makes a
+ * call a handful of shifts and xors, but an instance must only be used by one thread at a time.
+ * Use {@link #split()} to get an independent stream for another thread.
+ * <p>
+ * It extends {@link Random} so it can be given to the initializers and to
+ * {@link ParticleSystem#setRandom(Random)} in place of the default one. The same seed always
+ * gives the same sequence.
+ */
+public class XoroshiroRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final float FLOAT_UNIT = 1f / (1 << 24);
+	private static final double DOUBLE_UNIT = 1d / (1L << 53);
+
+	private long mState0;
+	private long mState1;
+
+	public XoroshiroRandom() {
+		super();
+	}
+
+	public XoroshiroRandom(long seed) {
+		super(seed);
+	}
+
+	/**
+	 * Called by the constructors of {@link Random}
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		// The state must not be all zeros, splitmix64 spreads any seed over both words
+		long s = seed;
+		s += 0x9E3779B97F4A7C15L;
+		mState0 = mix(s);
+		s += 0x9E3779B97F4A7C15L;
+		mState1 = mix(s);
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public long nextLong() {
+		long s0 = mState0;
+		long s1 = mState1;
+		long result = s0 + s1;
+		s1 ^= s0;
+		mState0 = Long.rotateLeft(s0, 24) ^ s1 ^ (s1 << 16);
+		mState1 = Long.rotateLeft(s1, 37);
+		return result;
+	}
+
+	@Override
+	protected int next(int bits) {
+		// The low bits of xoroshiro128+ are the weakest, use the high ones
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	/**
+	 * Multiplies instead of rejecting, the bias is below 2^-32 for the bounds used here
+	 */
+	@Override
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive");
+		}
+		return (int) (((nextLong() >>> 32) * bound) >>> 32);
+	}
+
+	@Override
+	public float nextFloat() {
+		return (nextLong() >>> 40) * FLOAT_UNIT;
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * Fills out[from, to) with uniform floats in [0, 1), the same values as as many calls to
+	 * {@link #nextFloat()}
+	 */
+	public void nextFloats(float[] out, int from, int to) {
+		long s0 = mState0;
+		long s1 = mState1;
+		for (int i=from; i<to; i++) {
+			long result = s0 + s1;
+			s1 ^= s0;
+			s0 = Long.rotateLeft(s0, 24) ^ s1 ^ (s1 << 16);
+			s1 = Long.rotateLeft(s1, 37);
+			out[i] = (result >>> 40) * FLOAT_UNIT;
+		}
+		mState0 = s0;
+		mState1 = s1;
+	}
+
+	/**
+	 * Fills out[from, to) with uniform floats in [0, 1) taken from any generator, in bulk when it
+	 * is a {@link XoroshiroRandom}
+	 */
+	public static void nextFloats(Random random, float[] out, int from, int to) {
+		if (random instanceof XoroshiroRandom) {
+			((XoroshiroRandom) random).nextFloats(out, from, to);
+		} else {
+			for (int i=from; i<to; i++) {
+				out[i] = random.nextFloat();
+			}
+		}
+	}
+
+	/**
+	 * @return a new generator seeded from this one, for use on another thread. The result is
+	 * reproducible: the same seed always splits into the same streams.
+	 */
+	public XoroshiroRandom split() {
+		return new XoroshiroRandom(nextLong());
+	}
+}
@@ -0,0 +1,210 @@
+package com.nxmtl.android.sportsview.clock;
+
+/**
+ * Fixed step simulation clock driven by display frames.
+ * <p>
+ * Each frame the real time elapsed since the previous frame (monotonic, in nanoseconds) is added
+ * to an accumulator which is then consumed in steps of a fixed duration, so the simulation
+ * advances with the wall clock whatever the refresh rate is. The time left in the accumulator
+ * is reported as an interpolation factor for rendering between the last two steps. When a frame
+ * comes too late only {@code maxStepsPerFrame} steps are run and the rest of the backlog is
+ * dropped, so a stall does not turn into a burst of catch-up work.
+ * <p>
+ * When little is moving the clock can run on one frame out of {@link #setFrameInterval(int)},
+ * and it can be stopped altogether while nothing is visible. The pause is not simulated, unless
+ * it is restarted with {@link #start(long)} which catches up on part of it in one go.
+ * <p>
+ * The clock does not know about Android, frames come from a {@link FrameSource}, which can be
+ * a fake one in JVM tests.
+ */
+public class FrameClock {
+
+	public interface Callback {
+
+		/**
+		 * Advances the simulation by one step
+		 *
+		 * @param timeMillis the simulation time after this step
+		 * @param stepMillis the duration of the step
+		 */
+		void onStep(long timeMillis, long stepMillis);
+
+		/**
+		 * Called once per frame after the steps for that frame have been run
+		 *
+		 * @param interpolation the fraction of a step, in [0, 1), elapsed after the last step
+		 */
+		void onFrame(float interpolation);
+
+	}
+
+	private static final long NANOS_PER_MILLISECOND = 1000000L;
+
+	private final FrameSource mSource;
+	private final long mStepMillis;
+	private final long mStepNanos;
+	private final int mMaxStepsPerFrame;
+	private final Callback mCallback;
+
+	private volatile boolean mRunning;
+	private volatile int mFrameInterval = 1;
+	private volatile boolean mResuming;
+	private volatile long mCatchUpNanos;
+	private int mSkippedFrames;
+	private long mLastFrameNanos = -1;
+	private long mAccumulatorNanos;
+	private long mTimeMillis;
+	private float mInterpolation;
+	private long mDroppedSteps;
+	private long mLateFrames;
+
+	/**
+	 * @param source the source of the frames
+	 * @param stepMillis the duration of a simulation step in milliseconds
+	 * @param maxStepsPerFrame the maximum number of steps run on a single frame
+	 * @param callback receives the steps and frames
+	 */
+	public FrameClock(FrameSource source, long stepMillis, int maxStepsPerFrame, Callback callback) {
+		if (stepMillis <= 0 || maxStepsPerFrame <= 0) {
+			throw new IllegalArgumentException("stepMillis and maxStepsPerFrame must be positive");
+		}
+		mSource = source;
+		mStepMillis = stepMillis;
+		mStepNanos = stepMillis * NANOS_PER_MILLISECOND;
+		mMaxStepsPerFrame = maxStepsPerFrame;
+		mCallback = callback;
+	}
+
+	/**
+	 * Starts requesting frames. The time elapsed while the clock was stopped is not simulated.
+	 */
+	public void start() {
+		start(0);
+	}
+
+	/**
+	 * Starts requesting frames, simulating up to catchUpMillis of the time elapsed while the clock
+	 * was stopped on the first frame. Those steps are all run on that frame, they are not limited
+	 * to {@code maxStepsPerFrame}.
+	 */
+	public void start(long catchUpMillis) {
+		if (mRunning) {
+			return;
+		}
+		mCatchUpNanos = Math.max(0, catchUpMillis) * NANOS_PER_MILLISECOND;
+		mResuming = true;
+		mRunning = true;
+		mSource.postFrameCallback(this);
+	}
+
+	public void stop() {
+		mRunning = false;
+		mSource.removeFrameCallback(this);
+	}
+
+	public boolean isRunning() {
+		return mRunning;
+	}
+
+	/**
+	 * Only runs the clock on one frame out of frameInterval, the others are skipped without
+	 * calling the callback. The simulation time still follows the real time. Can be called from
+	 * any thread.
+	 */
+	public void setFrameInterval(int frameInterval) {
+		if (frameInterval <= 0) {
+			throw new IllegalArgumentException("frameInterval must be positive");
+		}
+		mFrameInterval = frameInterval;
+	}
+
+	public int getFrameInterval() {
+		return mFrameInterval;
+	}
+
+	/**
+	 * Runs the simulation steps due at the given frame time.
+	 *
+	 * @param frameTimeNanos the frame time, in the {@link System#nanoTime()} time base
+	 */
+	public void doFrame(long frameTimeNanos) {
+		if (!mRunning) {
+			return;
+		}
+		int maxSteps = mMaxStepsPerFrame;
+		if (mResuming) {
+			mResuming = false;
+			mSkippedFrames = 0;
+			if (mLastFrameNanos >= 0 && frameTimeNanos > mLastFrameNanos) {
+				long catchUp = Math.min(frameTimeNanos - mLastFrameNanos, mCatchUpNanos);
+				mAccumulatorNanos += catchUp;
+				maxSteps = Integer.MAX_VALUE;
+			}
+		} else {
+			int frameInterval = mFrameInterval;
+			if (++mSkippedFrames < frameInterval) {
+				mSource.postFrameCallback(this);
+				return;
+			}
+			mSkippedFrames = 0;
+			// A tick covers frameInterval frames, so it may owe that many times the steps
+			maxSteps = mMaxStepsPerFrame * frameInterval;
+			if (mLastFrameNanos >= 0 && frameTimeNanos > mLastFrameNanos) {
+				long elapsed = frameTimeNanos - mLastFrameNanos;
+				if (elapsed >= 2 * mStepNanos * frameInterval) {
+					mLateFrames++;
+				}
+				mAccumulatorNanos += elapsed;
+			}
+		}
+		mLastFrameNanos = frameTimeNanos;
+		int steps = 0;
+		while (mAccumulatorNanos >= mStepNanos) {
+			if (steps == maxSteps) {
+				// Too far behind, drop what is left instead of catching up
+				mDroppedSteps += mAccumulatorNanos / mStepNanos;
+				mAccumulatorNanos %= mStepNanos;
+				break;
+			}
+			mAccumulatorNanos -= mStepNanos;
+			mTimeMillis += mStepMillis;
+			mCallback.onStep(mTimeMillis, mStepMillis);
+			steps++;
+		}
+		mInterpolation = (float) mAccumulatorNanos / mStepNanos;
+		mCallback.onFrame(mInterpolation);
+		if (mRunning) {
+			mSource.postFrameCallback(this);
+		}
+	}
+
+	/**
+	 * @return the simulation time in milliseconds
+	 */
+	public long getTimeMillis() {
+		return mTimeMillis;
+	}
+
+	public long getStepMillis() {
+		return mStepMillis;
+	}
+
+	public float getInterpolation() {
+		return mInterpolation;
+	}
+
+	/**
+	 * @return the number of steps skipped because a frame came too late
+	 */
+	public long getDroppedSteps() {
+		return mDroppedSteps;
+	}
+
+	/**
+	 * @return the number of frames that came two steps or more after the previous one, counted
+	 * in frame intervals
+	 */
+	public long getLateFrames() {
+		return mLateFrames;
+	}
+}
@@ -0,0 +1,19 @@
+package com.nxmtl.android.sportsview.clock;
+
+/**
+ * Delivers display frames to a {@link FrameClock}. Callbacks are one shot, the clock posts
+ * itself again from {@link FrameClock#doFrame(long)} for as long as it is running.
+ */
+public interface FrameSource {
+
+	/**
+	 * Requests a call to {@link FrameClock#doFrame(long)} on the next frame
+	 */
+	void postFrameCallback(FrameClock clock);
+
+	/**
+	 * Cancels a pending frame callback, if any
+	 */
+	void removeFrameCallback(FrameClock clock);
+
+}
@@ -0,0 +1,51 @@
+package com.nxmtl.android.sportsview.initializers;
+
+
+
+import com.nxmtl.android.sportsview.FastMath;
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+import java.util.Random;
+
+public class AccelerationInitializer implements BatchInitializer {
+
+	private float mMinValue;
+	private float mMaxValue;
+	private int mMinAngle;
+	private int mMaxAngle;
+
+	public AccelerationInitializer(float minAcceleration, float maxAcceleration, int minAngle, int maxAngle) {
+		mMinValue = minAcceleration;
+		mMaxValue = maxAcceleration;
+		mMinAngle = minAngle;
+		mMaxAngle = maxAngle;
+	}
+
+	@Override
+	public void initParticle(Particle p, Random r) {
+		int angle = mMinAngle;
+		if (mMaxAngle != mMinAngle) {
+			angle = r.nextInt(mMaxAngle - mMinAngle) + mMinAngle;
+		}
+		float value = r.nextFloat()*(mMaxValue-mMinValue)+mMinValue;
+		p.mAccelerationX = value * FastMath.cosDeg(angle);
+		p.mAccelerationY = value * FastMath.sinDeg(angle);
+	}
+
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		float[] accelerationX = particles.mAccelerationX;
+		float[] accelerationY = particles.mAccelerationY;
+		for (int i=from; i<to; i++) {
+			int angle = mMinAngle;
+			if (mMaxAngle != mMinAngle) {
+				angle = r.nextInt(mMaxAngle - mMinAngle) + mMinAngle;
+			}
+			float value = r.nextFloat()*(mMaxValue-mMinValue)+mMinValue;
+			accelerationX[i] = value * FastMath.cosDeg(angle);
+			accelerationY[i] = value * FastMath.sinDeg(angle);
+		}
+	}
+
+}
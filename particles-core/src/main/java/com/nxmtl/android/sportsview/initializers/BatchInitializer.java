@@ -0,0 +1,19 @@
+package com.nxmtl.android.sportsview.initializers;
+
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+import java.util.Random;
+
+/**
+ * A {@link ParticleInitializer} that can also initialize a whole range of freshly emitted
+ * particles at once, writing straight into the arrays of the buffer. Initializers that only
+ * implement {@link ParticleInitializer} are run through a {@link PerParticleInitializer}.
+ */
+public interface BatchInitializer extends ParticleInitializer {
+
+	/**
+	 * Initializes the particles in [from, to)
+	 */
+	void initParticles(ParticleBuffer particles, int from, int to, Random r);
+
+}
@@ -0,0 +1,35 @@
+package com.nxmtl.android.sportsview.initializers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+import java.util.Random;
+
+/**
+ * Runs a per particle {@link ParticleInitializer} as a {@link BatchInitializer}, loading every
+ * particle of the range into a {@link Particle} view and writing it back after the initializer.
+ */
+public class PerParticleInitializer implements BatchInitializer {
+
+	private final ParticleInitializer mInitializer;
+	private final Particle mParticleView = new Particle();
+
+	public PerParticleInitializer(ParticleInitializer initializer) {
+		mInitializer = initializer;
+	}
+
+	@Override
+	public void initParticle(Particle p, Random r) {
+		mInitializer.initParticle(p, r);
+	}
+
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		Particle p = mParticleView;
+		for (int i=from; i<to; i++) {
+			mInitializer.initParticle(p.load(particles, i), r);
+			p.store(particles, i);
+		}
+	}
+
+}
@@ -3,10 +3,11 @@ package com.nxmtl.android.sportsview.initializers;
 
 
 import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
 
 import java.util.Random;
 
-public class RotationInitializer implements ParticleInitializer {
+public class RotationInitializer implements BatchInitializer {
 
 	private int mMinAngle;
 	private int mMaxAngle;
@@ -21,4 +22,12 @@ public class RotationInitializer implements ParticleInitializer {
 		p.mInitialRotation = (mMinAngle == mMaxAngle) ? mMinAngle : r.nextInt(mMaxAngle - mMinAngle) + mMinAngle;
 	}
 
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		float[] initialRotation = particles.mInitialRotation;
+		for (int i=from; i<to; i++) {
+			initialRotation[i] = (mMinAngle == mMaxAngle) ? mMinAngle : r.nextInt(mMaxAngle - mMinAngle) + mMinAngle;
+		}
+	}
+
 }
@@ -3,10 +3,12 @@ package com.nxmtl.android.sportsview.initializers;
 
 
 import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+import com.nxmtl.android.sportsview.XoroshiroRandom;
 
 import java.util.Random;
 
-public class RotationSpeedInitializer implements ParticleInitializer {
+public class RotationSpeedInitializer implements BatchInitializer {
 
 	private float mMinRotationSpeed;
 	private float mMaxRotationSpeed;
@@ -22,4 +24,13 @@ public class RotationSpeedInitializer implements ParticleInitializer {
 		p.mRotationSpeed = rotationSpeed;
 	}
 
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		float[] rotationSpeed = particles.mRotationSpeed;
+		XoroshiroRandom.nextFloats(r, rotationSpeed, from, to);
+		for (int i=from; i<to; i++) {
+			rotationSpeed[i] = rotationSpeed[i]*(mMaxRotationSpeed-mMinRotationSpeed) + mMinRotationSpeed;
+		}
+	}
+
 }
@@ -2,10 +2,12 @@ package com.nxmtl.android.sportsview.initializers;
 
 
 import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+import com.nxmtl.android.sportsview.XoroshiroRandom;
 
 import java.util.Random;
 
-public class ScaleInitializer implements ParticleInitializer {
+public class ScaleInitializer implements BatchInitializer {
 
 	private float mMaxScale;
 	private float mMinScale;
@@ -21,4 +23,13 @@ public class ScaleInitializer implements ParticleInitializer {
 		p.mScale = scale;
 	}
 
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		float[] scale = particles.mScale;
+		XoroshiroRandom.nextFloats(r, scale, from, to);
+		for (int i=from; i<to; i++) {
+			scale[i] = scale[i]*(mMaxScale-mMinScale) + mMinScale;
+		}
+	}
+
 }
@@ -2,11 +2,13 @@ package com.nxmtl.android.sportsview.initializers;
 
 
 
+import com.nxmtl.android.sportsview.FastMath;
 import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
 
 import java.util.Random;
 
-public class SpeedModuleAndRangeInitializer implements ParticleInitializer {
+public class SpeedModuleAndRangeInitializer implements BatchInitializer {
 
 	private float mSpeedMin;
 	private float mSpeedMax;
@@ -43,10 +45,29 @@ public class SpeedModuleAndRangeInitializer implements ParticleInitializer {
 		else {
 			angle = r.nextInt(mMaxAngle - mMinAngle) + mMinAngle;
 		}
-		double angleInRads = Math.toRadians(angle);
-		p.mSpeedX = (float) (speed * Math.cos(angleInRads));
-		p.mSpeedY = (float) (speed * Math.sin(angleInRads));
+		p.mSpeedX = speed * FastMath.cosDeg(angle);
+		p.mSpeedY = speed * FastMath.sinDeg(angle);
 		p.mInitialRotation = angle + 90;
 	}
 
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		float[] speedX = particles.mSpeedX;
+		float[] speedY = particles.mSpeedY;
+		float[] initialRotation = particles.mInitialRotation;
+		for (int i=from; i<to; i++) {
+			float speed = r.nextFloat()*(mSpeedMax-mSpeedMin) + mSpeedMin;
+			int angle;
+			if (mMaxAngle == mMinAngle) {
+				angle = mMinAngle;
+			}
+			else {
+				angle = r.nextInt(mMaxAngle - mMinAngle) + mMinAngle;
+			}
+			speedX[i] = speed * FastMath.cosDeg(angle);
+			speedY[i] = speed * FastMath.sinDeg(angle);
+			initialRotation[i] = angle + 90;
+		}
+	}
+
 }
@@ -3,10 +3,11 @@ package com.nxmtl.android.sportsview.initializers;
 
 
 import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
 
 import java.util.Random;
 
-public class SpeeddByComponentsInitializer implements ParticleInitializer {
+public class SpeeddByComponentsInitializer implements BatchInitializer {
 
 	private float mMinSpeedX;
 	private float mMaxSpeedX;
@@ -26,4 +27,14 @@ public class SpeeddByComponentsInitializer implements ParticleInitializer {
 		p.mSpeedY = r.nextFloat()*(mMaxSpeedY-mMinSpeedY)+mMinSpeedY;
 	}
 
+	@Override
+	public void initParticles(ParticleBuffer particles, int from, int to, Random r) {
+		float[] speedX = particles.mSpeedX;
+		float[] speedY = particles.mSpeedY;
+		for (int i=from; i<to; i++) {
+			speedX[i] = r.nextFloat()*(mMaxSpeedX-mMinSpeedX)+mMinSpeedX;
+			speedY[i] = r.nextFloat()*(mMaxSpeedY-mMinSpeedY)+mMinSpeedY;
+		}
+	}
+
 }
@@ -0,0 +1,133 @@
+package com.nxmtl.android.sportsview.metrics;
+
+import com.nxmtl.android.sportsview.ParticlePool;
+import com.nxmtl.android.sportsview.clock.FrameClock;
+
+/**
+ * Frame time and simulation metrics of a view. The view records how long the simulation steps
+ * and the drawing take, and how long a frame waits between being requested and being drawn; on
+ * every frame it also samples the particle pool and the {@link FrameClock}. The update time of a
+ * frame is the sum of its steps, so a frame catching up on several steps counts as one long
+ * update, not as several short ones. Every
+ * {@code reportInterval} frames the numbers are copied into a {@link MetricsSnapshot} handed to
+ * the {@link Listener}.
+ * <p>
+ * Nothing allocates once the metrics are created, and a view without metrics does not even read
+ * the time. Values are cumulative since the creation of the metrics.
+ */
+public class FrameMetrics {
+
+	public interface Listener {
+
+		/**
+		 * Called on the simulation thread. The snapshot is reused for the next report, copy what
+		 * has to be kept.
+		 */
+		void onMetrics(MetricsSnapshot snapshot);
+
+	}
+
+	public static final int DEFAULT_REPORT_INTERVAL = 60;
+
+	private final LatencyHistogram mUpdateTime = new LatencyHistogram();
+	private final LatencyHistogram mDrawTime = new LatencyHistogram();
+	private final LatencyHistogram mFrameLatency = new LatencyHistogram();
+	private volatile long mLastUpdateNanos;
+	private volatile long mLastDrawNanos;
+	// Time the last frame was requested, 0 once it has been drawn
+	private volatile long mFrameRequestedNanos;
+	// Steps of the current frame and their total time, simulation thread only
+	private int mFrameSteps;
+	private long mFrameUpdateNanos;
+
+	private final Listener mListener;
+	private final int mReportInterval;
+	private final MetricsSnapshot mSnapshot = new MetricsSnapshot();
+	private long mFrames;
+	private volatile FrameClock mClock;
+
+	public FrameMetrics(Listener listener) {
+		this(listener, DEFAULT_REPORT_INTERVAL);
+	}
+
+	/**
+	 * @param listener receives the snapshots, can be null to only poll {@link #snapshot}
+	 * @param reportInterval number of frames between two reports
+	 */
+	public FrameMetrics(Listener listener, int reportInterval) {
+		mListener = listener;
+		mReportInterval = Math.max(1, reportInterval);
+	}
+
+	/**
+	 * Sets the clock whose dropped steps and late frames are reported, called by the view
+	 */
+	public void setFrameClock(FrameClock clock) {
+		mClock = clock;
+	}
+
+	/**
+	 * Adds the duration of a simulation step to the update time of the current frame. Simulation
+	 * thread.
+	 */
+	public void recordStep(long nanos) {
+		mFrameSteps++;
+		mFrameUpdateNanos += nanos;
+	}
+
+	/**
+	 * Ends a frame of the simulation: records its update time if it stepped, samples the pool,
+	 * requests the drawing and reports the metrics when due. Simulation thread.
+	 *
+	 * @param pool the particle pool, null while the view has no particles yet
+	 */
+	public void onFrame(ParticlePool pool, long requestedNanos) {
+		if (mFrameSteps > 0) {
+			mUpdateTime.record(mFrameUpdateNanos);
+			mLastUpdateNanos = mFrameUpdateNanos;
+			mFrameSteps = 0;
+			mFrameUpdateNanos = 0;
+		}
+		mFrames++;
+		mFrameRequestedNanos = requestedNanos;
+		if (mListener != null && mFrames % mReportInterval == 0) {
+			mListener.onMetrics(snapshot(pool));
+		}
+	}
+
+	/**
+	 * Records the duration of a draw, started at the given time. Drawing thread.
+	 */
+	public void recordDraw(long startNanos, long nanos) {
+		long requested = mFrameRequestedNanos;
+		if (requested != 0) {
+			mFrameRequestedNanos = 0;
+			mFrameLatency.record(startNanos - requested);
+		}
+		mDrawTime.record(nanos);
+		mLastDrawNanos = nanos;
+	}
+
+	/**
+	 * Copies the current values in the snapshot of these metrics. Simulation thread.
+	 *
+	 * @param pool the particle pool, null to report no particles
+	 */
+	public MetricsSnapshot snapshot(ParticlePool pool) {
+		MetricsSnapshot snapshot = mSnapshot;
+		snapshot.mFrames = mFrames;
+		snapshot.mLastUpdateNanos = mLastUpdateNanos;
+		snapshot.mLastDrawNanos = mLastDrawNanos;
+		mUpdateTime.copyTo(snapshot.mUpdateTime);
+		mDrawTime.copyTo(snapshot.mDrawTime);
+		mFrameLatency.copyTo(snapshot.mFrameLatency);
+		snapshot.mActiveParticles = pool != null ? pool.getActiveCount() : 0;
+		snapshot.mFreeParticles = pool != null ? pool.getFreeCount() : 0;
+		snapshot.mPeakActiveParticles = pool != null ? pool.getPeakActive() : 0;
+		snapshot.mStarvationCount = pool != null ? pool.getStarvationCount() : 0;
+		FrameClock clock = mClock;
+		snapshot.mDroppedSteps = clock != null ? clock.getDroppedSteps() : 0;
+		snapshot.mLateFrames = clock != null ? clock.getLateFrames() : 0;
+		return snapshot;
+	}
+}
@@ -0,0 +1,114 @@
+package com.nxmtl.android.sportsview.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds with power of two buckets: bucket b counts the durations
+ * in [2^(b-1), 2^b), bucket 0 the zero ones. Recording is a few array writes and never
+ * allocates.
+ * <p>
+ * A histogram has a single writer thread. Values are published with ordered writes, so any
+ * thread can read them, e.g. to {@link #copyTo} a snapshot, without locking the writer.
+ */
+public class LatencyHistogram {
+
+	/** Enough for durations up to 2^39 ns, about 9 minutes */
+	public static final int BUCKET_COUNT = 40;
+
+	private static final int COUNT = BUCKET_COUNT;
+	private static final int TOTAL = BUCKET_COUNT + 1;
+	private static final int MAX = BUCKET_COUNT + 2;
+
+	// Buckets followed by the count, the total and the max
+	private final AtomicLongArray mValues = new AtomicLongArray(BUCKET_COUNT + 3);
+
+	public static int bucketOf(long nanos) {
+		if (nanos <= 0) {
+			return 0;
+		}
+		return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(nanos));
+	}
+
+	/**
+	 * @return the smallest duration that does not fit in the bucket
+	 */
+	public static long bucketUpperBound(int bucket) {
+		return 1L << bucket;
+	}
+
+	/**
+	 * Adds a duration. Only called from the writer thread.
+	 */
+	public void record(long nanos) {
+		AtomicLongArray values = mValues;
+		int bucket = bucketOf(nanos);
+		values.lazySet(bucket, values.get(bucket) + 1);
+		values.lazySet(TOTAL, values.get(TOTAL) + nanos);
+		if (nanos > values.get(MAX)) {
+			values.lazySet(MAX, nanos);
+		}
+		values.lazySet(COUNT, values.get(COUNT) + 1);
+	}
+
+	public long getCount() {
+		return mValues.get(COUNT);
+	}
+
+	public long getBucketCount(int bucket) {
+		return mValues.get(bucket);
+	}
+
+	public long getTotalNanos() {
+		return mValues.get(TOTAL);
+	}
+
+	public long getMaxNanos() {
+		return mValues.get(MAX);
+	}
+
+	public long getMeanNanos() {
+		long count = getCount();
+		return count == 0 ? 0 : getTotalNanos() / count;
+	}
+
+	/**
+	 * @param fraction e.g. 0.99 for the 99th percentile
+	 * @return an upper bound of the percentile, the upper bound of the bucket holding it
+	 */
+	public long getPercentileNanos(double fraction) {
+		long count = 0;
+		for (int bucket=0; bucket<BUCKET_COUNT; bucket++) {
+			count += mValues.get(bucket);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(fraction * count);
+		long seen = 0;
+		for (int bucket=0; bucket<BUCKET_COUNT; bucket++) {
+			seen += mValues.get(bucket);
+			if (seen >= rank) {
+				return Math.min(bucketUpperBound(bucket), getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+
+	/**
+	 * Copies the values into the given histogram, which must not be written at the same time
+	 */
+	public void copyTo(LatencyHistogram target) {
+		for (int i=0; i<mValues.length(); i++) {
+			target.mValues.lazySet(i, mValues.get(i));
+		}
+	}
+
+	/**
+	 * Only safe when the writer is not recording
+	 */
+	public void reset() {
+		for (int i=0; i<mValues.length(); i++) {
+			mValues.set(i, 0);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.nxmtl.android.sportsview.metrics;
+
+/**
+ * Values of {@link FrameMetrics} at one point in time
+ */
+public class MetricsSnapshot {
+
+	public long mFrames;
+
+	/** Simulation time of the frames that stepped, all the steps of a frame together */
+	public final LatencyHistogram mUpdateTime = new LatencyHistogram();
+	/** Duration of the draws */
+	public final LatencyHistogram mDrawTime = new LatencyHistogram();
+	/** Time between the request of a frame by the simulation and the start of its draw */
+	public final LatencyHistogram mFrameLatency = new LatencyHistogram();
+	public long mLastUpdateNanos;
+	public long mLastDrawNanos;
+
+	/** Stats of the whole pool, each {@link com.nxmtl.android.sportsview.ParticleEmitter} keeps its own */
+	public int mActiveParticles;
+	public int mFreeParticles;
+	public int mPeakActiveParticles;
+	public int mStarvationCount;
+
+	/** Simulation steps skipped because a frame came too late */
+	public long mDroppedSteps;
+	/** Frames that came two steps or more after the previous one */
+	public long mLateFrames;
+}
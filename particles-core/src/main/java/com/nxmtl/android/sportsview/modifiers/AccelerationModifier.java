@@ -0,0 +1,35 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+
+import com.nxmtl.android.sportsview.FastMath;
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+public class AccelerationModifier implements BatchModifier {
+
+	private float mVelocityX;
+	private float mVelocityY;
+
+	public AccelerationModifier(float velocity, float angle) {
+		mVelocityX = velocity * FastMath.cosDeg(angle);
+		mVelocityY = velocity * FastMath.sinDeg(angle);
+	}
+
+	@Override
+	public void apply(Particle particle, long miliseconds) {
+		particle.mCurrentX += mVelocityX*miliseconds*miliseconds;
+		particle.mCurrentY += mVelocityY*miliseconds*miliseconds;
+	}
+
+	@Override
+	public void apply(ParticleBuffer particles, int from, int to, long[] ages) {
+		float[] currentX = particles.mCurrentX;
+		float[] currentY = particles.mCurrentY;
+		for (int i=from; i<to; i++) {
+			long age = ages[i];
+			currentX[i] += mVelocityX*age*age;
+			currentY[i] += mVelocityY*age*age;
+		}
+	}
+
+}
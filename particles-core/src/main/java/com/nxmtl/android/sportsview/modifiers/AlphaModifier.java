@@ -0,0 +1,42 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+
+public class AlphaModifier extends CurveModifier {
+
+	private int mInitialValue;
+	private float mValueIncrement;
+
+	public AlphaModifier(int initialValue, int finalValue, long startMilis, long endMilis, CurveTrack track) {
+		super(track, startMilis, endMilis);
+		mInitialValue = initialValue;
+		mValueIncrement = finalValue-initialValue;
+	}
+
+	/**
+	 * The easing is baked into a {@link CurveTrack}, it is not called on updates
+	 */
+	public AlphaModifier(int initialValue, int finalValue, long startMilis, long endMilis, Easing easing) {
+		this(initialValue, finalValue, startMilis, endMilis, CurveTrack.bake(easing));
+	}
+	
+	public AlphaModifier (int initialValue, int finalValue, long startMilis, long endMilis) {
+		this(initialValue, finalValue, startMilis, endMilis, CurveTrack.linear());
+	}
+
+	@Override
+	public void apply(Particle particle, long miliseconds) {
+		particle.mAlpha = (int) (mInitialValue + mValueIncrement*valueAt(miliseconds));
+	}
+
+	@Override
+	public void apply(ParticleBuffer particles, int from, int to, long[] ages) {
+		int[] alpha = particles.mAlpha;
+		for (int i=from; i<to; i++) {
+			alpha[i] = (int) (mInitialValue + mValueIncrement*valueAt(ages[i]));
+		}
+	}
+
+}
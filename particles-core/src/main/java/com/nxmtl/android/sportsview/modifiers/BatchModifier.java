@@ -0,0 +1,22 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+/**
+ * A {@link ParticleModifier} that can also update a whole range of particles at once, writing
+ * straight into the arrays of the buffer. The particle system calls the range version on every
+ * update, once per modifier, so the loop over the particles stays inside a single class.
+ * Modifiers that only implement {@link ParticleModifier} are run through a
+ * {@link PerParticleModifier}.
+ */
+public interface BatchModifier extends ParticleModifier {
+
+	/**
+	 * Modifies the particles in [from, to)
+	 *
+	 * @param particles the buffer holding the particles
+	 * @param ages the time each particle has been alive, in miliseconds, indexed like the buffer
+	 */
+	void apply(ParticleBuffer particles, int from, int to, long[] ages);
+
+}
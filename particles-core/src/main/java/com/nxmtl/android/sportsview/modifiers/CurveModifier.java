@@ -0,0 +1,34 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+/**
+ * Base of the modifiers driven by a {@link CurveTrack} between two points of the life of the
+ * particles. Before the start the track is at its start value, after the end at its end value.
+ */
+public abstract class CurveModifier implements BatchModifier {
+
+	protected final CurveTrack mTrack;
+	private final long mStartTime;
+	private final long mEndTime;
+	private final float mInverseDuration;
+
+	protected CurveModifier(CurveTrack track, long startMilis, long endMilis) {
+		mTrack = track;
+		mStartTime = startMilis;
+		mEndTime = endMilis;
+		mInverseDuration = endMilis > startMilis ? 1f / (endMilis - startMilis) : 0f;
+	}
+
+	/**
+	 * @return the value of the track for a particle alive for the given time
+	 */
+	protected final float valueAt(long miliseconds) {
+		if (miliseconds <= mStartTime) {
+			return mTrack.getStartValue();
+		}
+		if (miliseconds >= mEndTime) {
+			return mTrack.getEndValue();
+		}
+		return mTrack.evaluate((miliseconds - mStartTime) * mInverseDuration);
+	}
+
+}
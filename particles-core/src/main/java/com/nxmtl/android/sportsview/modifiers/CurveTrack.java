@@ -0,0 +1,99 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+/**
+ * A curve over [0, 1] baked into a lookup table. Evaluating it is one table lookup and a linear
+ * interpolation, whatever the cost of the easing or the number of keyframes it was built
+ * from. A single track can be shared by several {@link CurveModifier}s.
+ */
+public class CurveTrack {
+
+	public static final int DEFAULT_RESOLUTION = 256;
+
+	private final float[] mSamples;
+	private final int mLastSample;
+
+	private CurveTrack(float[] samples) {
+		mSamples = samples;
+		mLastSample = samples.length - 1;
+	}
+
+	/**
+	 * @return the identity curve
+	 */
+	public static CurveTrack linear() {
+		return new CurveTrack(new float[] {0f, 1f});
+	}
+
+	public static CurveTrack bake(Easing easing) {
+		return bake(easing, DEFAULT_RESOLUTION);
+	}
+
+	/**
+	 * Samples the easing at resolution + 1 evenly spaced points
+	 */
+	public static CurveTrack bake(Easing easing, int resolution) {
+		float[] samples = new float[resolution + 1];
+		for (int i=0; i<=resolution; i++) {
+			samples[i] = easing.getInterpolation((float) i / resolution);
+		}
+		return new CurveTrack(samples);
+	}
+
+	public static CurveTrack keyframes(float[] times, float[] values) {
+		return keyframes(times, values, DEFAULT_RESOLUTION);
+	}
+
+	/**
+	 * Bakes a piecewise linear curve going through the given keyframes. The value is held
+	 * constant before the first and after the last keyframe.
+	 *
+	 * @param times the keyframe times, ascending and in [0, 1]
+	 * @param values the value of the curve at each keyframe
+	 */
+	public static CurveTrack keyframes(float[] times, float[] values, int resolution) {
+		if (times.length == 0 || times.length != values.length) {
+			throw new IllegalArgumentException("times and values must be non empty and of the same length");
+		}
+		float[] samples = new float[resolution + 1];
+		int keyframe = 0;
+		for (int i=0; i<=resolution; i++) {
+			float t = (float) i / resolution;
+			while (keyframe < times.length - 1 && times[keyframe + 1] <= t) {
+				keyframe++;
+			}
+			if (t <= times[0]) {
+				samples[i] = values[0];
+			} else if (keyframe == times.length - 1) {
+				samples[i] = values[keyframe];
+			} else {
+				float fraction = (t - times[keyframe]) / (times[keyframe + 1] - times[keyframe]);
+				samples[i] = values[keyframe] + (values[keyframe + 1] - values[keyframe]) * fraction;
+			}
+		}
+		return new CurveTrack(samples);
+	}
+
+	public float getStartValue() {
+		return mSamples[0];
+	}
+
+	public float getEndValue() {
+		return mSamples[mLastSample];
+	}
+
+	/**
+	 * @param t the position on the curve, clamped to [0, 1]
+	 */
+	public float evaluate(float t) {
+		if (t <= 0f) {
+			return mSamples[0];
+		}
+		if (t >= 1f) {
+			return mSamples[mLastSample];
+		}
+		float position = t * mLastSample;
+		int index = (int) position;
+		float low = mSamples[index];
+		return low + (mSamples[index + 1] - low) * (position - index);
+	}
+}
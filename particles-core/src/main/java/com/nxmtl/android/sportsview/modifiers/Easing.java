@@ -0,0 +1,15 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+/**
+ * Maps the elapsed fraction of a modifier to the fraction of its change, like an Android
+ * interpolator. Easings are baked into a {@link CurveTrack} when the modifier is built.
+ */
+public interface Easing {
+
+	/**
+	 * @param input the elapsed fraction, in [0, 1]
+	 * @return the fraction of the change, can go out of [0, 1] to overshoot
+	 */
+	float getInterpolation(float input);
+
+}
@@ -0,0 +1,39 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+/**
+ * Runs a per particle {@link ParticleModifier} as a {@link BatchModifier}, loading every particle
+ * of the range into a {@link Particle} view and writing it back after the modifier. Each thread
+ * gets its own view, so ranges can be run in parallel.
+ */
+public class PerParticleModifier implements BatchModifier {
+
+	private final ParticleModifier mModifier;
+	private final ThreadLocal<Particle> mParticleView = new ThreadLocal<Particle>() {
+		@Override
+		protected Particle initialValue() {
+			return new Particle();
+		}
+	};
+
+	public PerParticleModifier(ParticleModifier modifier) {
+		mModifier = modifier;
+	}
+
+	@Override
+	public void apply(Particle particle, long miliseconds) {
+		mModifier.apply(particle, miliseconds);
+	}
+
+	@Override
+	public void apply(ParticleBuffer particles, int from, int to, long[] ages) {
+		Particle p = mParticleView.get();
+		for (int i=from; i<to; i++) {
+			mModifier.apply(p.load(particles, i), ages[i]);
+			p.store(particles, i);
+		}
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+/**
+ * Adds an extra rotation, in degrees, following a {@link CurveTrack} on top of the rotation
+ * given by the initial rotation and the rotation speed.
+ */
+public class RotationModifier extends CurveModifier {
+
+	private float mInitialValue;
+	private float mValueIncrement;
+
+	public RotationModifier(float initialDegrees, float finalDegrees, long startMilis, long endMilis, CurveTrack track) {
+		super(track, startMilis, endMilis);
+		mInitialValue = initialDegrees;
+		mValueIncrement = finalDegrees - initialDegrees;
+	}
+
+	public RotationModifier(float initialDegrees, float finalDegrees, long startMilis, long endMilis) {
+		this(initialDegrees, finalDegrees, startMilis, endMilis, CurveTrack.linear());
+	}
+
+	@Override
+	public void apply(Particle particle, long miliseconds) {
+		particle.mRotation += mInitialValue + mValueIncrement*valueAt(miliseconds);
+	}
+
+	@Override
+	public void apply(ParticleBuffer particles, int from, int to, long[] ages) {
+		float[] rotation = particles.mRotation;
+		for (int i=from; i<to; i++) {
+			rotation[i] += mInitialValue + mValueIncrement*valueAt(ages[i]);
+		}
+	}
+
+}
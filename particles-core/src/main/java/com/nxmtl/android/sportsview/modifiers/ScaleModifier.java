@@ -0,0 +1,42 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+
+public class ScaleModifier extends CurveModifier {
+
+	private float mInitialValue;
+	private float mValueIncrement;
+
+	public ScaleModifier (float initialValue, float finalValue, long startMilis, long endMilis, CurveTrack track) {
+		super(track, startMilis, endMilis);
+		mInitialValue = initialValue;
+		mValueIncrement = finalValue-initialValue;
+	}
+
+	/**
+	 * The easing is baked into a {@link CurveTrack}, it is not called on updates
+	 */
+	public ScaleModifier (float initialValue, float finalValue, long startMilis, long endMilis, Easing easing) {
+		this (initialValue, finalValue, startMilis, endMilis, CurveTrack.bake(easing));
+	}
+	
+	public ScaleModifier (float initialValue, float finalValue, long startMilis, long endMilis) {
+		this (initialValue, finalValue, startMilis, endMilis, CurveTrack.linear());
+	}
+	
+	@Override
+	public void apply(Particle particle, long miliseconds) {
+		particle.mScale = mInitialValue + mValueIncrement*valueAt(miliseconds);
+	}
+
+	@Override
+	public void apply(ParticleBuffer particles, int from, int to, long[] ages) {
+		float[] scale = particles.mScale;
+		for (int i=from; i<to; i++) {
+			scale[i] = mInitialValue + mValueIncrement*valueAt(ages[i]);
+		}
+	}
+
+}
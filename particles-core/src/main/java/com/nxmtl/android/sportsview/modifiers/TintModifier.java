@@ -0,0 +1,59 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+/**
+ * Blends the tint of the particles between two RGB colors following a {@link CurveTrack}. The
+ * tint multiplies the color of the sprite, white leaves it untouched.
+ */
+public class TintModifier extends CurveModifier {
+
+	private final int mInitialRed;
+	private final int mInitialGreen;
+	private final int mInitialBlue;
+	private final int mRedIncrement;
+	private final int mGreenIncrement;
+	private final int mBlueIncrement;
+
+	public TintModifier(int initialColor, int finalColor, long startMilis, long endMilis, CurveTrack track) {
+		super(track, startMilis, endMilis);
+		mInitialRed = (initialColor >> 16) & 0xFF;
+		mInitialGreen = (initialColor >> 8) & 0xFF;
+		mInitialBlue = initialColor & 0xFF;
+		mRedIncrement = ((finalColor >> 16) & 0xFF) - mInitialRed;
+		mGreenIncrement = ((finalColor >> 8) & 0xFF) - mInitialGreen;
+		mBlueIncrement = (finalColor & 0xFF) - mInitialBlue;
+	}
+
+	public TintModifier(int initialColor, int finalColor, long startMilis, long endMilis) {
+		this(initialColor, finalColor, startMilis, endMilis, CurveTrack.linear());
+	}
+
+	@Override
+	public void apply(Particle particle, long miliseconds) {
+		particle.mTint = tintAt(miliseconds);
+	}
+
+	@Override
+	public void apply(ParticleBuffer particles, int from, int to, long[] ages) {
+		int[] tint = particles.mTint;
+		for (int i=from; i<to; i++) {
+			tint[i] = tintAt(ages[i]);
+		}
+	}
+
+	private int tintAt(long miliseconds) {
+		float value = valueAt(miliseconds);
+		int red = clamp((int) (mInitialRed + mRedIncrement*value));
+		int green = clamp((int) (mInitialGreen + mGreenIncrement*value));
+		int blue = clamp((int) (mInitialBlue + mBlueIncrement*value));
+		return (red << 16) | (green << 8) | blue;
+	}
+
+	// Overshooting curves can leave the channel range
+	private static int clamp(int channel) {
+		return channel < 0 ? 0 : (channel > 0xFF ? 0xFF : channel);
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FastMathTest {
+
+    @Test
+    public void wholeDegreesMatchMath() {
+        for (int degrees = -720; degrees <= 720; degrees++) {
+            double radians = Math.toRadians(degrees);
+            assertEquals(Math.sin(radians), FastMath.sinDeg(degrees), 1e-6);
+            assertEquals(Math.cos(radians), FastMath.cosDeg(degrees), 1e-6);
+        }
+    }
+
+    @Test
+    public void fractionalDegreesAreInterpolated() {
+        for (float degrees = -400f; degrees < 400f; degrees += 0.37f) {
+            double radians = Math.toRadians(degrees);
+            assertEquals(Math.sin(radians), FastMath.sinDeg(degrees), 5e-5);
+            assertEquals(Math.cos(radians), FastMath.cosDeg(degrees), 5e-5);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameTableTest {
+
+    @Test
+    public void findsTheFrameShownAtEachTime() {
+        FrameTable table = new FrameTable(new int[]{100, 50, 200}, false);
+        assertEquals(0, table.frameAt(0));
+        assertEquals(0, table.frameAt(99));
+        assertEquals(1, table.frameAt(100));
+        assertEquals(1, table.frameAt(149));
+        assertEquals(2, table.frameAt(150));
+        assertEquals(2, table.frameAt(349));
+    }
+
+    @Test
+    public void repeatingAnimationWraps() {
+        FrameTable table = new FrameTable(new int[]{100, 50, 200}, false);
+        assertEquals(350, table.getTotalTime());
+        assertEquals(1, table.frameAt(350 + 120));
+    }
+
+    @Test
+    public void oneShotAnimationEnds() {
+        FrameTable table = new FrameTable(new int[]{100, 100}, true);
+        assertEquals(1, table.frameAt(199));
+        assertEquals(-1, table.frameAt(201));
+    }
+
+    @Test
+    public void uniformDurationsMatchTheSearch() {
+        FrameTable uniform = new FrameTable(new int[]{40, 40, 40, 40}, false);
+        for (int t = 0; t < 400; t++) {
+            int expected = (t > 160 ? t % 160 : t) / 40;
+            assertEquals(Math.min(expected, 3), uniform.frameAt(t));
+        }
+    }
+}
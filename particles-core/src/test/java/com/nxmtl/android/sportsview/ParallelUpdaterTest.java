@@ -0,0 +1,99 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParallelUpdaterTest {
+
+    private final ParallelUpdater updater = new ParallelUpdater(4, 1000);
+
+    @After
+    public void shutdown() {
+        updater.shutdown();
+    }
+
+    @Test
+    public void everyIndexIsUpdatedOnce() {
+        final int[] visits = new int[10000];
+        for (int run = 0; run < 20; run++) {
+            updater.run(visits.length, new ParallelUpdater.RangeTask() {
+                @Override
+                public void run(int from, int to) {
+                    for (int i = from; i < to; i++) {
+                        visits[i]++;
+                    }
+                }
+            });
+        }
+        for (int visit : visits) {
+            assertEquals(20, visit);
+        }
+    }
+
+    @Test
+    public void smallRangesStayOnTheCallingThread() {
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger calls = new AtomicInteger();
+        updater.run(999, new ParallelUpdater.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                assertSame(caller, Thread.currentThread());
+                assertEquals(0, from);
+                assertEquals(999, to);
+                calls.incrementAndGet();
+            }
+        });
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void runsInlineOnceShutDown() {
+        updater.shutdown();
+        final AtomicInteger visited = new AtomicInteger();
+        updater.run(10000, new ParallelUpdater.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                visited.addAndGet(to - from);
+            }
+        });
+        assertEquals(10000, visited.get());
+    }
+
+    @Test
+    public void interruptedCallerWaitsForTheHelpers() {
+        final int[] visits = new int[10000];
+        Thread.currentThread().interrupt();
+        try {
+            updater.run(visits.length, new ParallelUpdater.RangeTask() {
+                @Override
+                public void run(int from, int to) {
+                    for (int i = from; i < to; i++) {
+                        visits[i]++;
+                    }
+                }
+            });
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        for (int visit : visits) {
+            assertEquals(1, visit);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failuresReachTheCaller() {
+        updater.run(10000, new ParallelUpdater.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                if (from == 0) {
+                    throw new IllegalStateException();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.nxmtl.android.sportsview;
+
+import com.nxmtl.android.sportsview.initializers.ScaleInitializer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParticleEmitterTest {
+
+    private static ParticleSystem system(long timeToLive) {
+        ParticleSystem system = new ParticleSystem(1000, new SpriteSheet(new int[]{0}, new int[]{0},
+                new int[]{10}, new int[]{10}, new int[]{0}, new FrameTable[]{null}), timeToLive);
+        system.setRandomSeed(42);
+        return system;
+    }
+
+    private static int size(ParticleSystem system) {
+        return system.getParticles().mSize;
+    }
+
+    @Test
+    public void continuousRateCarriesTheFractionOver() {
+        ParticleSystem system = system(100000);
+        system.addEmitter(ParticleEmitter.continuous(50).setPoint(0, 0));
+        // 0.8 particles due on every 16 ms step
+        for (long time = 16; time <= 1008; time += 16) {
+            system.onUpdate(time);
+        }
+        assertEquals(50, size(system));
+    }
+
+    @Test
+    public void continuousDoesNotBurstAfterAPause() {
+        ParticleSystem system = system(100);
+        system.addEmitter(ParticleEmitter.continuous(1000).setPoint(0, 0));
+        system.onUpdate(16);
+        system.onUpdate(10016);
+        // Only what can be alive at once, not the 10 s of the pause
+        assertEquals(100, size(system));
+    }
+
+    @Test
+    public void burstsRepeatAndEnd() {
+        ParticleSystem system = system(100000);
+        ParticleEmitter burst = ParticleEmitter.burst(10, 100, 2);
+        system.addEmitter(burst);
+        system.onUpdate(16);
+        assertEquals(10, size(system));
+        system.onUpdate(50);
+        assertEquals(10, size(system));
+        system.onUpdate(116);
+        system.onUpdate(216);
+        assertEquals(30, size(system));
+        assertTrue(burst.isFinished());
+        assertFalse(system.getEmitters().contains(burst));
+        system.onUpdate(316);
+        assertEquals(30, size(system));
+    }
+
+    @Test
+    public void missedBurstsCollapseIntoOne() {
+        ParticleSystem system = system(100000);
+        system.addEmitter(ParticleEmitter.burst(10, 100, ParticleEmitter.REPEAT_FOREVER));
+        system.onUpdate(0);
+        system.onUpdate(1000);
+        assertEquals(20, size(system));
+        system.onUpdate(1050);
+        assertEquals(20, size(system));
+        system.onUpdate(1100);
+        assertEquals(30, size(system));
+    }
+
+    @Test
+    public void oneShotEmitsOnceAndCanBeRearmed() {
+        ParticleSystem system = system(100000);
+        ParticleEmitter explosion = ParticleEmitter.oneShot(20).setPoint(50, 50);
+        system.addEmitter(explosion);
+        system.onUpdate(16);
+        system.onUpdate(32);
+        assertEquals(20, size(system));
+        assertTrue(system.getEmitters().isEmpty());
+        explosion.reset();
+        system.addEmitter(explosion);
+        system.onUpdate(48);
+        assertEquals(40, size(system));
+    }
+
+    @Test
+    public void emittersShareThePoolWithTheirOwnInitializers() {
+        ParticleSystem system = system(100000);
+        system.setScaleRange(1f, 1f);
+        system.prepareEmitting(1000, new int[]{0, 0, 0, 0});
+        system.addEmitter(ParticleEmitter.oneShot(5).setPoint(200, 200)
+                .addInitializer(new ScaleInitializer(3f, 3f)));
+        system.onUpdate(10);
+        ParticleBuffer particles = system.getParticles();
+        assertEquals(15, particles.mSize);
+        int big = 0;
+        for (int i = 0; i < particles.mSize; i++) {
+            if (particles.mScale[i] == 3f) {
+                big++;
+                // Centered on the point, the sprite is 10x10
+                assertEquals(195f, particles.mInitialX[i], 0f);
+            } else {
+                assertEquals(1f, particles.mScale[i], 0f);
+                assertEquals(-5f, particles.mInitialX[i], 0f);
+            }
+        }
+        assertEquals(5, big);
+    }
+
+    @Test
+    public void statsTellWhichEmitterWasStarved() {
+        ParticleSystem system = system(100);
+        ParticleEmitter first = ParticleEmitter.oneShot(800).setPoint(0, 0);
+        ParticleEmitter second = ParticleEmitter.oneShot(400).setPoint(0, 0);
+        system.addEmitter(first);
+        system.addEmitter(second);
+        system.onUpdate(16);
+        // The pool holds 1000, the second emitter only gets what the first one left
+        assertEquals(800, first.getActiveCount());
+        assertEquals(200, second.getActiveCount());
+        assertEquals(0, first.getStarvationCount());
+        assertEquals(1, second.getStarvationCount());
+        system.onUpdate(200);
+        assertEquals(0, first.getActiveCount());
+        assertEquals(0, second.getActiveCount());
+        assertEquals(800, first.getPeakActive());
+        assertEquals(200, second.getPeakActive());
+    }
+
+    @Test
+    public void stopEmittingStopsEveryEmitter() {
+        ParticleSystem system = system(100000);
+        system.prepareEmitting(1000, new int[]{0, 0, 0, 0});
+        system.addEmitter(ParticleEmitter.burst(10, 16, ParticleEmitter.REPEAT_FOREVER));
+        system.onUpdate(16);
+        int emitted = size(system);
+        system.stopEmitting();
+        system.onUpdate(32);
+        assertEquals(emitted, size(system));
+        assertTrue(system.getEmitters().isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParticleFrameExchangeTest {
+
+    private static void publish(ParticleFrameExchange exchange, int count) {
+        exchange.getBackFrame().mCount = count;
+        exchange.publish();
+    }
+
+    @Test
+    public void readerGetsTheNewestFrame() {
+        ParticleFrameExchange exchange = new ParticleFrameExchange(4);
+        publish(exchange, 1);
+        publish(exchange, 2);
+        assertEquals(2, exchange.acquire().mCount);
+    }
+
+    @Test
+    public void readerKeepsItsFrameUntilANewOneIsPublished() {
+        ParticleFrameExchange exchange = new ParticleFrameExchange(4);
+        publish(exchange, 1);
+        ParticleFrame front = exchange.acquire();
+        assertSame(front, exchange.acquire());
+        publish(exchange, 2);
+        assertNotSame(front, exchange.getBackFrame());
+        publish(exchange, 3);
+        assertNotSame(front, exchange.getBackFrame());
+        assertEquals(1, front.mCount);
+        assertEquals(3, exchange.acquire().mCount);
+    }
+
+    @Test
+    public void captureInterpolatesPositionAndRotation() {
+        ParticleBuffer particles = new ParticleBuffer(2);
+        int i = particles.add();
+        particles.mCurrentX[i] = 10;
+        particles.mCurrentY[i] = 20;
+        particles.mRotation[i] = 90;
+        particles.savePrevious();
+        particles.mCurrentX[i] = 20;
+        particles.mCurrentY[i] = 40;
+        particles.mRotation[i] = 180;
+        ParticleFrame frame = new ParticleFrame(2);
+        frame.capture(particles, 0.5f);
+        assertEquals(1, frame.mCount);
+        assertEquals(15f, frame.mX[i], 0f);
+        assertEquals(30f, frame.mY[i], 0f);
+        assertEquals(135f, frame.mRotation[i], 0f);
+        assertEquals(255, frame.mAlpha[i]);
+    }
+}
@@ -0,0 +1,94 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParticleSystemTest {
+
+    private static SpriteSheet singleSprite() {
+        return new SpriteSheet(new int[]{0}, new int[]{0}, new int[]{10}, new int[]{10},
+                new int[]{0}, new FrameTable[]{null});
+    }
+
+    private static ParticleSystem emitter(int maxParticles, long timeToLive) {
+        ParticleSystem system = new ParticleSystem(maxParticles, singleSprite(), timeToLive);
+        system.setRandomSeed(42);
+        system.setSpeedModuleAndAngleRange(0.05f, 0.1f, 0, 360);
+        system.setRotationSpeedRange(90, 180);
+        system.setScaleRange(0.5f, 1.5f);
+        system.setFadeOut(200);
+        system.prepareEmitting(1000, new int[]{0, 100, 0, 100});
+        return system;
+    }
+
+    @Test
+    public void emitsAtTheConfiguredRate() {
+        ParticleSystem system = emitter(1000, 10000);
+        system.onUpdate(100);
+        assertEquals(100, system.getParticles().mSize);
+    }
+
+    @Test
+    public void particlesDieAfterTheirTimeToLive() {
+        ParticleSystem system = emitter(1000, 100);
+        system.onUpdate(50);
+        system.onUpdate(100);
+        system.onUpdate(160);
+        // The 50 particles emitted at 50 ms are over, the 50 emitted at 100 ms and the 60 emitted
+        // at 160 ms are alive
+        assertEquals(110, system.getParticles().mSize);
+    }
+
+    @Test
+    public void publishedBoundsContainEveryParticle() {
+        ParticleSystem system = emitter(1000, 10000);
+        system.onUpdate(100);
+        system.onUpdate(116);
+        ParticleFrame frame = system.publishFrame(0.5f);
+        assertTrue(frame.mCount > 0);
+        for (int i = 0; i < frame.mCount; i++) {
+            float centerX = frame.mX[i] + 5;
+            float centerY = frame.mY[i] + 5;
+            // Half diagonal of the 10x10 sprite, scaled
+            float radius = (float) Math.sqrt(50) * frame.mScale[i];
+            assertTrue(centerX - radius >= frame.mLeft);
+            assertTrue(centerY - radius >= frame.mTop);
+            assertTrue(centerX + radius <= frame.mRight);
+            assertTrue(centerY + radius <= frame.mBottom);
+        }
+    }
+
+    @Test
+    public void poolStarvationIsCounted() {
+        ParticleSystem system = emitter(10, 10000);
+        system.onUpdate(100);
+        assertEquals(10, system.getParticles().mSize);
+        assertEquals(1, system.getPool().getStarvationCount());
+    }
+
+    @Test
+    public void parallelUpdateMatchesSerialUpdate() {
+        ParticleSystem serial = emitter(5000, 500);
+        ParticleSystem parallel = emitter(5000, 500);
+        ParallelUpdater updater = new ParallelUpdater(4, 256);
+        parallel.setParallelUpdater(updater);
+        try {
+            for (long time = 16; time < 2000; time += 16) {
+                serial.onUpdate(time);
+                parallel.onUpdate(time);
+            }
+        } finally {
+            updater.shutdown();
+        }
+        ParticleBuffer expected = serial.getParticles();
+        ParticleBuffer actual = parallel.getParticles();
+        assertEquals(expected.mSize, actual.mSize);
+        for (int i = 0; i < expected.mSize; i++) {
+            assertEquals(expected.mCurrentX[i], actual.mCurrentX[i], 0f);
+            assertEquals(expected.mCurrentY[i], actual.mCurrentY[i], 0f);
+            assertEquals(expected.mRotation[i], actual.mRotation[i], 0f);
+            assertEquals(expected.mAlpha[i], actual.mAlpha[i]);
+        }
+    }
+}
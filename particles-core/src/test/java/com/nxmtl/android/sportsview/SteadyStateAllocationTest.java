@@ -0,0 +1,158 @@
+package com.nxmtl.android.sportsview;
+
+import com.nxmtl.android.sportsview.clock.FrameClock;
+import com.nxmtl.android.sportsview.clock.FrameSource;
+import com.nxmtl.android.sportsview.metrics.FrameMetrics;
+import com.nxmtl.android.sportsview.modifiers.AccelerationModifier;
+import com.nxmtl.android.sportsview.modifiers.ScaleModifier;
+import com.nxmtl.android.sportsview.modifiers.TintModifier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * Once warmed up, simulating, publishing and meshing frames must not allocate, so a running view
+ * never feeds the GC. Frames come from a fake {@link FrameSource}: the Choreographer adapter of
+ * the app and the canvas drawing are not covered here.
+ */
+public class SteadyStateAllocationTest {
+
+    private static final long STEP = 16;
+    private static final int WARM_UP_FRAMES = 2000;
+    /** The first windows may see one-off allocations of the JVM while the code gets compiled **/
+    private static final int MAX_WARM_UP_WINDOWS = 30;
+    /** Consecutive clean windows after which the code is considered compiled **/
+    private static final int SETTLED_WINDOWS = 3;
+    private static final int MEASURED_FRAMES = 5000;
+    private static final long FRAME_NANOS = 16666667L;
+
+    private AllocationMeter meter;
+
+    @Before
+    public void setUp() {
+        meter = AllocationMeter.create();
+        assumeNotNull(meter);
+    }
+
+    private static ParticleSystem system(SpriteSheet sprites) {
+        ParticleSystem system = new ParticleSystem(500, sprites, 800);
+        system.setRandomSeed(42);
+        system.setScaleRange(0.7f, 1.3f);
+        system.setSpeedModuleAndAngleRange(0.07f, 0.16f, -120, -80);
+        system.setRotationSpeedRange(90, 180);
+        system.setFadeOut(200);
+        system.addModifier(new ScaleModifier(1f, 0.5f, 0, 800));
+        system.addModifier(new AccelerationModifier(0.0001f, 90));
+        system.addModifier(new TintModifier(0xFFFFFF, 0xFF8800, 0, 800));
+        system.prepareEmitting(400, new int[]{0, 400, 300, 300});
+        return system;
+    }
+
+    private static SpriteSheet animatedSprites() {
+        return new SpriteSheet(new int[]{0, 17, 34, 51}, new int[]{0, 0, 0, 0},
+                new int[]{16, 16, 16, 16}, new int[]{16, 16, 16, 16},
+                new int[]{0}, new FrameTable[]{new FrameTable(new int[]{50, 50, 50, 50}, false)});
+    }
+
+    /** Frames delivered by the test, like the vsync of the views **/
+    private static class ManualFrameSource implements FrameSource {
+        FrameClock pending;
+
+        @Override
+        public void postFrameCallback(FrameClock clock) {
+            pending = clock;
+        }
+
+        @Override
+        public void removeFrameCallback(FrameClock clock) {
+            pending = null;
+        }
+    }
+
+    /** What a view does for every display frame, without the canvas **/
+    private static class Pipeline implements FrameClock.Callback {
+        final ParticleSystem system;
+        final ParticleMesh mesh;
+        final FrameMetrics metrics = new FrameMetrics(null);
+        final ManualFrameSource source = new ManualFrameSource();
+        final FrameClock clock = new FrameClock(source, STEP, 4, this);
+        long frameNanos;
+        int quads;
+
+        Pipeline(ParticleSystem system) {
+            this.system = system;
+            mesh = new ParticleMesh(system.getSpriteSheet(), system.getParticles().mCapacity);
+            clock.start();
+        }
+
+        @Override
+        public void onStep(long timeMillis, long stepMillis) {
+            long start = System.nanoTime();
+            system.onUpdate(timeMillis);
+            metrics.recordStep(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onFrame(float interpolation) {
+            system.publishFrame(interpolation);
+            metrics.onFrame(system.getPool(), frameNanos);
+            long start = System.nanoTime();
+            quads = mesh.fill(system.acquireFrame());
+            metrics.recordDraw(start, System.nanoTime() - start);
+        }
+
+        void frames(int count) {
+            for (int i = 0; i < count; i++) {
+                frameNanos += FRAME_NANOS;
+                FrameClock pending = source.pending;
+                source.pending = null;
+                pending.doFrame(frameNanos);
+            }
+        }
+    }
+
+    private void assertNoAllocation(Pipeline pipeline) {
+        pipeline.frames(WARM_UP_FRAMES);
+        assertTrue(pipeline.quads > 0);
+        int clean = 0;
+        for (int i = 0; i < MAX_WARM_UP_WINDOWS && clean < SETTLED_WINDOWS; i++) {
+            long start = meter.start();
+            pipeline.frames(WARM_UP_FRAMES);
+            clean = meter.since(start) == 0 ? clean + 1 : 0;
+        }
+        long start = meter.start();
+        pipeline.frames(MEASURED_FRAMES);
+        long allocated = meter.since(start);
+        assertEquals("Bytes allocated in " + MEASURED_FRAMES + " frames", 0, allocated);
+    }
+
+    @Test
+    public void staticSpritesDoNotAllocate() {
+        assertNoAllocation(new Pipeline(system(new SpriteSheet(new int[]{0}, new int[]{0},
+                new int[]{16}, new int[]{16}, new int[]{0}, new FrameTable[]{null}))));
+    }
+
+    @Test
+    public void animatedSpritesDoNotAllocate() {
+        assertNoAllocation(new Pipeline(system(animatedSprites())));
+    }
+
+    @Test
+    public void randomDoesNotAllocate() {
+        XoroshiroRandom random = new XoroshiroRandom(42);
+        float[] values = new float[256];
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            random.nextFloats(values, 0, values.length);
+            random.nextInt(100);
+        }
+        long start = meter.start();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            random.nextFloats(values, 0, values.length);
+            random.nextInt(100);
+        }
+        assertEquals(0, meter.since(start));
+    }
+}
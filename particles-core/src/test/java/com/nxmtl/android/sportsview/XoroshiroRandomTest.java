@@ -0,0 +1,51 @@
+package com.nxmtl.android.sportsview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class XoroshiroRandomTest {
+
+    @Test
+    public void sameSeedGivesSameSequence() {
+        XoroshiroRandom a = new XoroshiroRandom(42);
+        XoroshiroRandom b = new XoroshiroRandom(7);
+        b.setSeed(42);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+        }
+    }
+
+    @Test
+    public void valuesStayInRange() {
+        XoroshiroRandom random = new XoroshiroRandom(1);
+        for (int i = 0; i < 10000; i++) {
+            float f = random.nextFloat();
+            assertTrue(f >= 0f && f < 1f);
+            int n = random.nextInt(7);
+            assertTrue(n >= 0 && n < 7);
+        }
+    }
+
+    @Test
+    public void bulkFillMatchesSingleCalls() {
+        XoroshiroRandom bulk = new XoroshiroRandom(3);
+        XoroshiroRandom single = new XoroshiroRandom(3);
+        float[] values = new float[64];
+        bulk.nextFloats(values, 8, 64);
+        for (int i = 8; i < 64; i++) {
+            assertEquals(single.nextFloat(), values[i], 0f);
+        }
+        assertEquals(single.nextLong(), bulk.nextLong());
+    }
+
+    @Test
+    public void splitStreamsAreReproducibleAndDistinct() {
+        XoroshiroRandom a = new XoroshiroRandom(5);
+        XoroshiroRandom b = new XoroshiroRandom(5);
+        XoroshiroRandom splitA = a.split();
+        XoroshiroRandom splitB = b.split();
+        assertEquals(splitA.nextLong(), splitB.nextLong());
+        assertNotEquals(a.nextLong(), splitA.nextLong());
+    }
+}
@@ -0,0 +1,149 @@
+package com.nxmtl.android.sportsview.clock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameClockTest {
+
+    private static final long MS = 1000000L;
+
+    /** Fake vsync, frames are delivered by the test **/
+    private static class ManualFrameSource implements FrameSource {
+        FrameClock pending;
+
+        @Override
+        public void postFrameCallback(FrameClock clock) {
+            pending = clock;
+        }
+
+        @Override
+        public void removeFrameCallback(FrameClock clock) {
+            pending = null;
+        }
+
+        void frame(long frameTimeNanos) {
+            FrameClock clock = pending;
+            pending = null;
+            if (clock != null) {
+                clock.doFrame(frameTimeNanos);
+            }
+        }
+    }
+
+    private ManualFrameSource source;
+    private int steps;
+    private long lastStepTime;
+    private float lastInterpolation;
+    private FrameClock clock;
+
+    @Before
+    public void setUp() {
+        source = new ManualFrameSource();
+        clock = new FrameClock(source, 16, 4, new FrameClock.Callback() {
+            @Override
+            public void onStep(long timeMillis, long stepMillis) {
+                steps++;
+                lastStepTime = timeMillis;
+            }
+
+            @Override
+            public void onFrame(float interpolation) {
+                lastInterpolation = interpolation;
+            }
+        });
+        clock.start();
+    }
+
+    @Test
+    public void firstFrameOnlySetsTheTimeBase() {
+        source.frame(1000 * MS);
+        assertEquals(0, steps);
+        assertEquals(0, clock.getTimeMillis());
+        assertNotNull(source.pending);
+    }
+
+    @Test
+    public void stepsFollowRealElapsedTimeAtAnyRefreshRate() {
+        long frameTime = 0;
+        source.frame(frameTime);
+        // 120 frames at 120Hz is one second
+        for (int i = 0; i < 120; i++) {
+            frameTime += 1000 * MS / 120;
+            source.frame(frameTime);
+        }
+        assertEquals(62, steps);
+        assertEquals(992, lastStepTime);
+        assertEquals(8f / 16f, lastInterpolation, 0.01f);
+    }
+
+    @Test
+    public void catchUpIsCapped() {
+        source.frame(0);
+        source.frame(1000 * MS);
+        assertEquals(4, steps);
+        assertEquals(58, clock.getDroppedSteps());
+        assertEquals(1, clock.getLateFrames());
+        source.frame(1016 * MS);
+        assertEquals(5, steps);
+        assertEquals(1, clock.getLateFrames());
+    }
+
+    @Test
+    public void stoppedClockDoesNotSimulateThePause() {
+        source.frame(0);
+        source.frame(32 * MS);
+        assertEquals(2, steps);
+        clock.stop();
+        assertNull(source.pending);
+        clock.start();
+        source.frame(5000 * MS);
+        source.frame(5016 * MS);
+        assertEquals(3, steps);
+        assertEquals(48, clock.getTimeMillis());
+    }
+
+    @Test
+    public void frameIntervalSkipsFramesButKeepsTime() {
+        clock.setFrameInterval(4);
+        long frameTime = 0;
+        source.frame(frameTime);
+        for (int i = 0; i < 64; i++) {
+            frameTime += 16 * MS;
+            source.frame(frameTime);
+        }
+        assertEquals(64, steps);
+        assertEquals(1024, clock.getTimeMillis());
+        assertEquals(0, clock.getLateFrames());
+        assertNotNull(source.pending);
+    }
+
+    @Test
+    public void frameIntervalAtSixtyHertzDropsNothing() {
+        clock.setFrameInterval(4);
+        long frameTime = 0;
+        source.frame(frameTime);
+        // Every tick owes about 4.17 steps, more than the per frame cap
+        for (int i = 1; i <= 600; i++) {
+            frameTime = i * 1000 * MS / 60;
+            source.frame(frameTime);
+        }
+        assertEquals(0, clock.getDroppedSteps());
+        assertEquals(10000 / 16, steps);
+        assertEquals(0, clock.getLateFrames());
+    }
+
+    @Test
+    public void restartCatchesUpOnPartOfThePause() {
+        source.frame(0);
+        source.frame(32 * MS);
+        clock.stop();
+        clock.start(800);
+        source.frame(10032 * MS);
+        assertEquals(2 + 50, steps);
+        assertEquals(0, clock.getDroppedSteps());
+        source.frame(10048 * MS);
+        assertEquals(53, steps);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nxmtl.android.sportsview.metrics;
+
+import com.nxmtl.android.sportsview.ParticlePool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameMetricsTest {
+
+    @Test
+    public void reportsEveryIntervalFrames() {
+        final int[] reports = new int[1];
+        FrameMetrics metrics = new FrameMetrics(new FrameMetrics.Listener() {
+            @Override
+            public void onMetrics(MetricsSnapshot snapshot) {
+                reports[0]++;
+            }
+        }, 10);
+        ParticlePool pool = new ParticlePool(8);
+        for (int i = 0; i < 35; i++) {
+            metrics.onFrame(pool, i);
+        }
+        assertEquals(3, reports[0]);
+    }
+
+    @Test
+    public void snapshotHoldsTimesAndPoolState() {
+        FrameMetrics metrics = new FrameMetrics(null);
+        ParticlePool pool = new ParticlePool(2);
+        pool.obtain(3);
+        metrics.recordStep(2000);
+        metrics.onFrame(pool, 10000);
+        metrics.recordDraw(15000, 4000);
+        // Drawn again without a new frame, not a frame latency
+        metrics.recordDraw(30000, 4000);
+        MetricsSnapshot snapshot = metrics.snapshot(pool);
+        assertEquals(1, snapshot.mFrames);
+        assertEquals(2000, snapshot.mLastUpdateNanos);
+        assertEquals(1, snapshot.mUpdateTime.getCount());
+        assertEquals(2, snapshot.mDrawTime.getCount());
+        assertEquals(1, snapshot.mFrameLatency.getCount());
+        assertEquals(5000, snapshot.mFrameLatency.getMaxNanos());
+        assertEquals(2, snapshot.mActiveParticles);
+        assertEquals(0, snapshot.mFreeParticles);
+        assertEquals(1, snapshot.mStarvationCount);
+    }
+
+    @Test
+    public void catchUpStepsMakeOneUpdate() {
+        FrameMetrics metrics = new FrameMetrics(null);
+        metrics.recordStep(1000);
+        metrics.recordStep(2000);
+        metrics.recordStep(3000);
+        metrics.onFrame(null, 0);
+        // A frame without a step has no update time
+        metrics.onFrame(null, 0);
+        MetricsSnapshot snapshot = metrics.snapshot(null);
+        assertEquals(2, snapshot.mFrames);
+        assertEquals(1, snapshot.mUpdateTime.getCount());
+        assertEquals(6000, snapshot.mLastUpdateNanos);
+        assertEquals(0, snapshot.mActiveParticles);
+    }
+}
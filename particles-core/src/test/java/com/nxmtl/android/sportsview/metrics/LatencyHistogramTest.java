@@ -0,0 +1,45 @@
+package com.nxmtl.android.sportsview.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void durationsGoToPowerOfTwoBuckets() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(1, LatencyHistogram.bucketOf(1));
+        assertEquals(2, LatencyHistogram.bucketOf(2));
+        assertEquals(2, LatencyHistogram.bucketOf(3));
+        assertEquals(11, LatencyHistogram.bucketOf(1024));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void tracksCountTotalMaxAndPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(5000000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(99 * 1000 + 5000000, histogram.getTotalNanos());
+        assertEquals(5000000, histogram.getMaxNanos());
+        assertEquals(1024, histogram.getPercentileNanos(0.5));
+        assertEquals(1024, histogram.getPercentileNanos(0.99));
+        assertEquals(5000000, histogram.getPercentileNanos(1));
+    }
+
+    @Test
+    public void copyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        LatencyHistogram copy = new LatencyHistogram();
+        histogram.copyTo(copy);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(1, copy.getCount());
+        assertEquals(1, copy.getBucketCount(LatencyHistogram.bucketOf(100)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import com.nxmtl.android.sportsview.Particle;
+import com.nxmtl.android.sportsview.ParticleBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BatchModifierTest {
+
+    private static final long[] AGES = {0, 250, 500, 750, 1000};
+
+    private static ParticleBuffer buffer() {
+        ParticleBuffer particles = new ParticleBuffer(AGES.length);
+        for (int i = 0; i < AGES.length; i++) {
+            particles.add();
+        }
+        return particles;
+    }
+
+    @Test
+    public void rangeMatchesPerParticleApply() {
+        ScaleModifier modifier = new ScaleModifier(1f, 3f, 200, 800);
+        ParticleBuffer particles = buffer();
+        modifier.apply(particles, 0, particles.mSize, AGES);
+        Particle particle = new Particle();
+        for (int i = 0; i < AGES.length; i++) {
+            modifier.apply(particle, AGES[i]);
+            assertEquals(particle.mScale, particles.mScale[i], 0f);
+        }
+    }
+
+    @Test
+    public void rangeBoundsAreRespected() {
+        AlphaModifier modifier = new AlphaModifier(255, 0, 0, 1000);
+        ParticleBuffer particles = buffer();
+        modifier.apply(particles, 1, 3, AGES);
+        assertEquals(255, particles.mAlpha[0]);
+        assertEquals(191, particles.mAlpha[1]);
+        assertEquals(127, particles.mAlpha[2]);
+        assertEquals(255, particles.mAlpha[3]);
+    }
+
+    @Test
+    public void perParticleModifierIsAdapted() {
+        ParticleBuffer particles = buffer();
+        new PerParticleModifier(new ParticleModifier() {
+            @Override
+            public void apply(Particle particle, long miliseconds) {
+                particle.mCurrentX = miliseconds;
+            }
+        }).apply(particles, 0, particles.mSize, AGES);
+        for (int i = 0; i < AGES.length; i++) {
+            assertEquals(AGES[i], particles.mCurrentX[i], 0f);
+        }
+    }
+}
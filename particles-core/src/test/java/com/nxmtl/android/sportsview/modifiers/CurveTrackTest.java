@@ -0,0 +1,45 @@
+package com.nxmtl.android.sportsview.modifiers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CurveTrackTest {
+
+    @Test
+    public void linearTrackIsTheIdentity() {
+        CurveTrack track = CurveTrack.linear();
+        assertEquals(0f, track.evaluate(0f), 0f);
+        assertEquals(0.25f, track.evaluate(0.25f), 1e-6f);
+        assertEquals(1f, track.evaluate(1f), 0f);
+    }
+
+    @Test
+    public void bakedTrackFollowsTheInterpolator() {
+        CurveTrack track = CurveTrack.bake(new Easing() {
+            @Override
+            public float getInterpolation(float input) {
+                return input * input;
+            }
+        });
+        for (float t = 0f; t <= 1f; t += 0.01f) {
+            assertEquals(t * t, track.evaluate(t), 1e-4f);
+        }
+    }
+
+    @Test
+    public void evaluationIsClamped() {
+        CurveTrack track = CurveTrack.keyframes(new float[]{0f, 1f}, new float[]{2f, 4f});
+        assertEquals(2f, track.evaluate(-1f), 0f);
+        assertEquals(4f, track.evaluate(2f), 0f);
+    }
+
+    @Test
+    public void keyframesAreJoinedLinearly() {
+        CurveTrack track = CurveTrack.keyframes(new float[]{0.25f, 0.5f, 1f}, new float[]{0f, 1f, 0f});
+        assertEquals(0f, track.evaluate(0.1f), 1e-6f);
+        assertEquals(0.5f, track.evaluate(0.375f), 1e-6f);
+        assertEquals(1f, track.evaluate(0.5f), 1e-6f);
+        assertEquals(0.5f, track.evaluate(0.75f), 1e-6f);
+    }
+}
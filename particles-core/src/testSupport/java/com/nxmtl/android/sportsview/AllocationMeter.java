@@ -0,0 +1,53 @@
+package com.nxmtl.android.sportsview;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Bytes allocated by the current thread, from the HotSpot extension of {@link ThreadMXBean}.
+ * Shared with the tests of the app through the testSupport configuration.
+ */
+public final class AllocationMeter {
+
+    private final com.sun.management.ThreadMXBean mBean;
+    private final long mThreadId = Thread.currentThread().getId();
+    /** What reading the counter allocates by itself, subtracted from every measure **/
+    private final long mOverhead;
+
+    private AllocationMeter(com.sun.management.ThreadMXBean bean) {
+        mBean = bean;
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = mBean.getThreadAllocatedBytes(mThreadId);
+            overhead = Math.min(overhead, mBean.getThreadAllocatedBytes(mThreadId) - start);
+        }
+        mOverhead = overhead;
+    }
+
+    /**
+     * @return null when the JVM can not measure allocations, tests should be skipped then
+     */
+    public static AllocationMeter create() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+        if (!hotSpotBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        hotSpotBean.setThreadAllocatedMemoryEnabled(true);
+        return new AllocationMeter(hotSpotBean);
+    }
+
+    public long start() {
+        return mBean.getThreadAllocatedBytes(mThreadId);
+    }
+
+    /**
+     * @return the bytes allocated by this thread since {@link #start()} returned the given value
+     */
+    public long since(long start) {
+        return Math.max(0, mBean.getThreadAllocatedBytes(mThreadId) - start - mOverhead);
+    }
+}